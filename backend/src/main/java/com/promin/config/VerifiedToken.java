@@ -0,0 +1,51 @@
+package com.promin.config;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Date;
+
+/**
+ * Claims of a bearer token whose signature and expiry have already been checked.
+ * The authentication filter stores it on the request so later code never re-parses the token.
+ */
+public final class VerifiedToken {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private final Claims claims;
+
+    VerifiedToken(Claims claims) {
+        this.claims = claims;
+    }
+
+    public static VerifiedToken fromRequest(HttpServletRequest request) {
+        return (VerifiedToken) request.getAttribute(REQUEST_ATTRIBUTE);
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    public String getRole() {
+        return (String) claims.get(JwtUtil.ROLE_CLAIM);
+    }
+
+    public Long getUserId() {
+        Number userId = (Number) claims.get(JwtUtil.USER_ID_CLAIM);
+        return userId != null ? userId.longValue() : null;
+    }
+
+    public int getTokenVersion() {
+        Number version = (Number) claims.get(JwtUtil.TOKEN_VERSION_CLAIM);
+        return version != null ? version.intValue() : 0;
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+}
@@ -1,57 +1,138 @@
 package com.promin.controller;
 
-import com.promin.entity.Job;
+import com.promin.dto.AuditLogView;
+import com.promin.dto.UserView;
+import com.promin.entity.AuditAction;
+import com.promin.entity.Role;
 import com.promin.entity.User;
-import com.promin.repository.JobRepository;
+import com.promin.entity.UserStatus;
+import com.promin.repository.AuditLogRepository;
 import com.promin.repository.UserRepository;
+import com.promin.security.UserPrincipalCache;
+import com.promin.service.AnalyticsService;
+import com.promin.service.AuditService;
+import com.promin.service.CursorPage;
+import com.promin.service.ExportService;
+import com.promin.service.JobService;
+import com.promin.service.KeysetCursor;
+import com.promin.service.PlatformCounters;
+import com.promin.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/admin")
 public class AdminController {
 
+    private static final int MAX_AUDIT_PAGE_SIZE = 100;
+
+    private static final String EXPORT_TIMEOUT = AdminController.class.getName() + ".EXPORT_TIMEOUT";
+
+    @Value("${audit.query.default-range:P30D}")
+    private Duration auditDefaultRange;
+
+    @Value("${export.timeout:PT30M}")
+    private Duration exportTimeout;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private JobRepository jobRepository;
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private PlatformCounters platformCounters;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
 
     @GetMapping("/users")
     public ResponseEntity<?> getUsers(@RequestParam(required = false) String search,
                                       @RequestParam(defaultValue = "0") int page,
                                       @RequestParam(defaultValue = "12") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> users = userRepository.findAll(pageable);
+        Page<UserView> users = userRepository.findViewsBySearchCriteria(search, null, null, pageable);
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/users/cursor")
+    public ResponseEntity<?> getUsersByCursor(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "12") int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, CursorPage.clampSize(size));
+        Slice<UserView> users = after == null
+                ? userRepository.findFirstByKeyset(pageable)
+                : userRepository.findByKeysetAfter(after.createdAt(), after.id(), pageable);
+        return ResponseEntity.ok(CursorPage.of(users, user -> new KeysetCursor(user.createdAt(), user.id())));
+    }
+
     @GetMapping("/users/{id}")
     public ResponseEntity<?> getUser(@PathVariable Long id) {
-        return userRepository.findById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        return userRepository.findById(id).map(UserView::from).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/users/{id}")
     public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody User payload) {
         User user = userRepository.findById(id).orElseThrow();
+        Role previousRole = user.getRole();
+        UserStatus previousStatus = user.getStatus();
+        boolean accessChanged = previousRole != payload.getRole() || previousStatus != payload.getStatus();
         user.setFirstName(payload.getFirstName());
         user.setLastName(payload.getLastName());
         user.setRole(payload.getRole());
         user.setStatus(payload.getStatus());
-        userRepository.save(user);
-        return ResponseEntity.ok(user);
+        if (accessChanged) {
+            userService.updateUserAccess(user, previousRole, previousStatus);
+        } else {
+            userRepository.save(user);
+            principalCache.evict(user.getEmail());
+        }
+        auditService.record(AuditAction.ADMIN_UPDATE_USER, "USER", id,
+                accessChanged ? "role=" + user.getRole() + ", status=" + user.getStatus() : null);
+        return ResponseEntity.ok(UserView.from(user));
     }
 
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        userRepository.deleteById(id);
+        userService.deleteUser(id);
+        auditService.record(AuditAction.ADMIN_DELETE_USER, "USER", id, null);
         return ResponseEntity.noContent().build();
     }
 
@@ -59,48 +140,96 @@ public class AdminController {
     public ResponseEntity<?> getJobs(@RequestParam(defaultValue = "0") int page,
                                      @RequestParam(defaultValue = "12") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(jobRepository.findAll(pageable));
+        return ResponseEntity.ok(jobService.listAllJobs(pageable));
+    }
+
+    @GetMapping("/jobs/cursor")
+    public ResponseEntity<?> getJobsByCursor(@RequestParam Map<String, String> params,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "12") int size) {
+        return ResponseEntity.ok(jobService.listJobsByCursor(params, cursor, size));
     }
 
     @DeleteMapping("/jobs/{id}")
     public ResponseEntity<?> deleteJob(@PathVariable Long id) {
-        jobRepository.deleteById(id);
+        jobService.deleteJob(id);
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/jobs/{id}/flag")
     public ResponseEntity<?> flagJob(@PathVariable Long id) {
+        auditService.record(AuditAction.ADMIN_FLAG_JOB, "JOB", id, null);
         Map<String, Object> res = new HashMap<>();
         res.put("message", "Job flagged");
         return ResponseEntity.ok(res);
     }
 
     @GetMapping("/audit-logs")
-    public ResponseEntity<?> getAuditLogs(@RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<?> getAuditLogs(@RequestParam(required = false) String search,
+                                          @RequestParam(required = false) String action,
+                                          @RequestParam(required = false) Long userId,
+                                          @RequestParam(required = false) String startDate,
+                                          @RequestParam(required = false) String endDate,
+                                          @RequestParam(defaultValue = "0") int page,
                                           @RequestParam(defaultValue = "20") int size) {
-        // Mock empty page
-        Map<String, Object> res = new HashMap<>();
-        res.put("content", java.util.Collections.emptyList());
-        res.put("number", 0);
-        res.put("size", size);
-        res.put("totalElements", 0);
-        res.put("totalPages", 0);
-        return ResponseEntity.ok(res);
+        // Default to the most recent window so the query never spans every partition
+        LocalDateTime to = endDate != null && !endDate.isEmpty()
+                ? LocalDate.parse(endDate).plusDays(1).atStartOfDay()
+                : LocalDate.now().plusDays(1).atStartOfDay();
+        LocalDateTime from = startDate != null && !startDate.isEmpty()
+                ? LocalDate.parse(startDate).atStartOfDay()
+                : to.minus(auditDefaultRange);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_AUDIT_PAGE_SIZE));
+        Page<AuditLogView> logs = auditLogRepository.findViewsBySearchCriteria(search, action, userId, from, to, pageable);
+        return ResponseEntity.ok(logs);
     }
 
     @GetMapping("/analytics")
-    public ResponseEntity<?> analytics() {
-        Map<String, Object> res = new HashMap<>();
-        res.put("totalUsers", userRepository.count());
-        res.put("totalJobs", jobRepository.count());
-        res.put("platformRevenue", 0);
-        res.put("growthRate", 12);
+    public ResponseEntity<?> analytics(@RequestParam(defaultValue = "30d") String period) {
+        Map<String, Object> res = analyticsService.analytics(period);
+        PlatformCounters.Snapshot counters = platformCounters.snapshot();
+        res.put("totalUsers", counters.totalUsers());
+        res.put("totalJobs", counters.totalJobs());
+        res.put("platformRevenue", counters.platformRevenue());
+        res.put("requesterCount", counters.usersByRole().get(Role.REQUESTER));
+        res.put("taskerCount", counters.usersByRole().get(Role.TASKER));
+        res.put("adminCount", counters.usersByRole().get(Role.ADMIN));
         return ResponseEntity.ok(res);
     }
 
     @GetMapping("/export/{type}")
-    public ResponseEntity<?> export(@PathVariable String type) {
-        return ResponseEntity.ok("id,name\n1,example");
+    public ResponseEntity<?> export(@PathVariable String type,
+                                    @RequestParam(defaultValue = "csv") String format,
+                                    @RequestParam(defaultValue = "false") boolean gzip,
+                                    HttpServletRequest request) {
+        ExportService.Type exportType = ExportService.Type.fromPath(type).orElse(null);
+        if (exportType == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        String filename = exportType.getPath() + "-export-" + LocalDate.now() + "." + exportFormat.getExtension()
+                + (gzip ? ".gz" : "");
+        auditService.record(AuditAction.ADMIN_EXPORT, null, null, exportType.getPath());
+        StreamingResponseBody body = out -> exportService.export(exportType, exportFormat, gzip, out);
+        // A large table takes longer than the default async timeout; only this request gets more
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(exportTimeout.toMillis());
+                        }
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
     }
 }
 
@@ -1,14 +1,20 @@
 package com.promin.controller;
 
-import com.promin.entity.Application;
+import com.promin.dto.ApplicationView;
 import com.promin.entity.User;
 import com.promin.repository.ApplicationRepository;
-import com.promin.repository.UserRepository;
+import com.promin.security.CurrentUser;
+import com.promin.service.CursorPage;
+import com.promin.service.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -21,14 +27,27 @@ public class ApplicationController {
     private ApplicationRepository applicationRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUser currentUser;
 
     @GetMapping
     public ResponseEntity<?> myApplications(Authentication auth) {
-        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
-        List<Application> apps = applicationRepository.findByTasker(user);
+        User user = currentUser.reference(auth);
+        List<ApplicationView> apps = applicationRepository.findViewsByTasker(user);
         return ResponseEntity.ok(apps);
     }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<?> myApplicationsByCursor(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "12") int size,
+                                                    Authentication auth) {
+        User user = currentUser.reference(auth);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, CursorPage.clampSize(size));
+        Slice<ApplicationView> apps = after == null
+                ? applicationRepository.findFirstByTaskerKeyset(user, pageable)
+                : applicationRepository.findByTaskerKeysetAfter(user, after.createdAt(), after.id(), pageable);
+        return ResponseEntity.ok(CursorPage.of(apps, app -> new KeysetCursor(app.createdAt(), app.id())));
+    }
 }
 
 
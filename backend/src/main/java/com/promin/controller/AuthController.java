@@ -1,13 +1,16 @@
 package com.promin.controller;
 
 import com.promin.config.JwtUtil;
+import com.promin.config.VerifiedToken;
 import com.promin.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/auth")
@@ -20,18 +23,23 @@ public class AuthController {
     private JwtUtil jwtUtil;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> payload) {
-        Map<String, Object> result = authService.login(payload.get("email"), payload.get("password"));
-        return ResponseEntity.ok(result);
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> payload) {
+        return authService.login(payload.get("email"), payload.get("password"))
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Map<String, Object> payload) {
-        return ResponseEntity.ok(authService.register(payload));
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody Map<String, Object> payload) {
+        return authService.register(payload).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/verify")
-    public ResponseEntity<?> verify(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> verify(@RequestHeader("Authorization") String authHeader, HttpServletRequest request) {
+        // The authentication filter has usually verified this token already
+        VerifiedToken verified = VerifiedToken.fromRequest(request);
+        if (verified != null) {
+            return ResponseEntity.ok(authService.verify(verified));
+        }
         String token = authHeader.replace("Bearer ", "");
         return ResponseEntity.ok(authService.verify(token));
     }
@@ -0,0 +1,40 @@
+package com.promin.controller;
+
+import com.promin.service.AvatarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+/**
+ * Serves avatar images by content hash. A hash always names the same bytes, so rendered sizes
+ * are cached by browsers and proxies for a year without revalidation.
+ */
+@RestController
+@RequestMapping("/public/avatars")
+public class AvatarController {
+
+    @Autowired
+    private AvatarService avatarService;
+
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> get(@PathVariable String hash, @RequestParam(required = false) Integer size) {
+        return avatarService.find(hash, size)
+                .map(rendition -> {
+                    CacheControl cacheControl = rendition.cacheable()
+                            ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                            : CacheControl.noCache();
+                    return ResponseEntity.ok()
+                            .cacheControl(cacheControl)
+                            .eTag("\"" + rendition.path().getFileName() + "\"")
+                            .contentType(MediaType.parseMediaType(rendition.contentType()))
+                            .body((Resource) new FileSystemResource(rendition.path()));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
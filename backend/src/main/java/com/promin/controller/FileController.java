@@ -1,39 +1,247 @@
 package com.promin.controller;
 
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import com.promin.entity.FileResource;
+import com.promin.entity.Job;
+import com.promin.entity.Role;
+import com.promin.entity.UploadSession;
+import com.promin.repository.JobRepository;
+import com.promin.security.AuthenticatedUser;
+import com.promin.security.CurrentUser;
+import com.promin.service.ChunkedUploadService;
+import com.promin.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.*;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/files")
 public class FileController {
 
+    // Request attributes understood by Tomcat's NIO connector: once set, the connector sends the
+    // file region with sendfile after the servlet returns, without copying it through the JVM
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private CurrentUser currentUser;
+
     @PostMapping("/upload")
-    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file) {
-        // Mock upload response
-        return ResponseEntity.ok(java.util.Map.of(
-                "id", 1,
-                "url", "/uploads/" + file.getOriginalFilename()
-        ));
+    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file,
+                                    @RequestParam(required = false) Long jobId,
+                                    Authentication auth) throws IOException {
+        Job job = null;
+        if (jobId != null) {
+            if (!jobRepository.existsById(jobId)) {
+                throw new IllegalArgumentException("Job not found");
+            }
+            job = jobRepository.getReferenceById(jobId);
+        }
+        FileResource stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = fileStorageService.store(in, file.getOriginalFilename(), file.getContentType(),
+                    currentUser.reference(auth), job);
+        }
+        return ResponseEntity.ok(describe(stored));
+    }
+
+    @PostMapping("/uploads")
+    public ResponseEntity<?> startUpload(@RequestBody Map<String, Object> payload, Authentication auth) {
+        Object size = payload.get("size");
+        Object jobId = payload.get("jobId");
+        if (!(size instanceof Number)) {
+            throw new IllegalArgumentException("size is required");
+        }
+        UploadSession session = chunkedUploadService.start(currentUser.id(auth),
+                jobId instanceof Number number ? number.longValue() : null,
+                (String) payload.get("name"), (String) payload.get("contentType"), ((Number) size).longValue());
+        return ResponseEntity.ok(describe(session, List.of()));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> getUpload(@PathVariable String uploadId, Authentication auth) {
+        UploadSession session = chunkedUploadService.get(uploadId, currentUser.id(auth));
+        return ResponseEntity.ok(describe(session, chunkedUploadService.receivedChunks(uploadId)));
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> uploadChunk(@PathVariable String uploadId, @PathVariable int index,
+                                         InputStream body, Authentication auth) throws IOException {
+        chunkedUploadService.writeChunk(uploadId, currentUser.id(auth), index, body);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String uploadId, Authentication auth) {
+        Long fileId = chunkedUploadService.complete(uploadId, currentUser.id(auth));
+        return fileStorageService.find(fileId)
+                .map(file -> ResponseEntity.ok(describe(file)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable String uploadId, Authentication auth) {
+        chunkedUploadService.abort(uploadId, currentUser.id(auth));
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{id}/download")
-    public ResponseEntity<byte[]> download(@PathVariable Long id) {
-        byte[] content = "Demo file".getBytes(StandardCharsets.UTF_8);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=demo.txt")
-                .contentType(MediaType.TEXT_PLAIN)
-                .body(content);
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable Long id,
+                                                          @RequestHeader HttpHeaders requestHeaders,
+                                                          HttpServletRequest request,
+                                                          Authentication auth) {
+        FileResource file = fileStorageService.find(id).orElse(null);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        AuthenticatedUser principal = currentUser.principal(auth);
+        if (principal.getRole() != Role.ADMIN && !fileStorageService.isAccessibleBy(id, principal.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Path path = fileStorageService.resolve(file);
+        if (!Files.isReadable(path)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Content-addressed, so the hash is a strong validator
+        String etag = "\"" + file.getFileName() + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        if (matches(requestHeaders.getIfNoneMatch(), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        long length = file.getFileSize();
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        List<HttpRange> ranges = ifRange == null || ifRange.equals(etag) ? ranges(requestHeaders) : List.of();
+        // Multiple ranges are answered with the whole file, which RFC 9110 allows
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = length == 0 ? 0 : end - start + 1;
+        headers.setContentType(MediaType.parseMediaType(file.getContentType()));
+        headers.setContentLength(count);
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(file.getOriginalName(), StandardCharsets.UTF_8)
+                .build());
+
+        if (count > 0 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+        long position = start;
+        StreamingResponseBody body = out -> {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long offset = position;
+                long remaining = count;
+                while (remaining > 0) {
+                    long sent = channel.transferTo(offset, remaining, target);
+                    offset += sent;
+                    remaining -= sent;
+                }
+            }
+        };
+        return ResponseEntity.status(status).headers(headers).body(body);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(@PathVariable Long id) {
+    public ResponseEntity<?> delete(@PathVariable Long id, Authentication auth) {
+        FileResource file = fileStorageService.find(id).orElse(null);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        AuthenticatedUser principal = currentUser.principal(auth);
+        boolean owner = file.getUser() != null && file.getUser().getId().equals(principal.getId());
+        if (!owner && principal.getRole() != Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        fileStorageService.delete(file);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private static Map<String, Object> describe(FileResource file) {
+        Map<String, Object> res = new HashMap<>();
+        res.put("id", file.getId());
+        res.put("url", "/files/" + file.getId() + "/download");
+        res.put("name", file.getOriginalName());
+        res.put("contentType", file.getContentType());
+        res.put("size", file.getFileSize());
+        return res;
+    }
+
+    private static Map<String, Object> describe(UploadSession session, List<Integer> receivedChunks) {
+        Map<String, Object> res = new HashMap<>();
+        res.put("uploadId", session.getId());
+        res.put("status", session.getStatus());
+        res.put("size", session.getTotalSize());
+        res.put("chunkSize", session.getChunkSize());
+        res.put("chunkCount", session.getChunkCount());
+        res.put("receivedChunks", receivedChunks);
+        res.put("fileId", session.getFileId());
+        res.put("expiresAt", session.getExpiresAt());
+        return res;
+    }
 
+    private static List<HttpRange> ranges(HttpHeaders requestHeaders) {
+        try {
+            return requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            // A malformed Range header is ignored, as RFC 9110 requires
+            return List.of();
+        }
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
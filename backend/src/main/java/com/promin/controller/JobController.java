@@ -1,7 +1,9 @@
 package com.promin.controller;
 
+import com.promin.dto.ApplicationView;
+import com.promin.dto.JobSummary;
 import com.promin.entity.*;
-import com.promin.repository.UserRepository;
+import com.promin.security.CurrentUser;
 import com.promin.service.JobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -25,14 +27,14 @@ public class JobController {
     private JobService jobService;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUser currentUser;
 
     @GetMapping
     public ResponseEntity<?> list(@RequestParam Map<String, String> params,
                                   @RequestParam(defaultValue = "0") int page,
                                   @RequestParam(defaultValue = "12") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Job> jobs = jobService.listJobs(params, pageable);
+        Page<JobSummary> jobs = jobService.listJobs(params, pageable);
         return ResponseEntity.ok(jobs);
     }
 
@@ -41,29 +43,44 @@ public class JobController {
                                     @RequestParam(defaultValue = "0") int page,
                                     @RequestParam(defaultValue = "12") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Job> jobs = jobService.listJobs(params, pageable);
+        Page<JobSummary> jobs = jobService.listJobs(params, pageable);
         return ResponseEntity.ok(jobs);
     }
 
+    @GetMapping("/recommended")
+    public ResponseEntity<?> recommended(@RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "12") int size,
+                                         Authentication auth) {
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(jobService.recommendJobs(currentUser.id(auth), pageable));
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<?> listByCursor(@RequestParam Map<String, String> params,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "12") int size) {
+        return ResponseEntity.ok(jobService.listJobsByCursor(params, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> get(@PathVariable Long id) {
-        return jobService.getJob(id)
+        return jobService.getJobDetail(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public ResponseEntity<?> create(@RequestBody Job job, Authentication auth) {
-        Long requesterId = userRepository.findByEmail(auth.getName()).orElseThrow().getId();
+        Long requesterId = currentUser.id(auth);
         Job created = jobService.createJob(job, requesterId);
-        return ResponseEntity.ok(created);
+        return ResponseEntity.ok(jobService.getJobDetail(created.getId()).orElseThrow());
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable Long id, @RequestBody Job payload, Authentication auth) {
-        Long requesterId = userRepository.findByEmail(auth.getName()).orElseThrow().getId();
+        Long requesterId = currentUser.id(auth);
         Job updated = jobService.updateJob(id, payload, requesterId);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok(jobService.getJobDetail(updated.getId()).orElseThrow());
     }
 
     @DeleteMapping("/{id}")
@@ -74,37 +91,37 @@ public class JobController {
 
     @PostMapping("/{id}/apply")
     public ResponseEntity<?> apply(@PathVariable Long id, @RequestBody Map<String, Object> body, Authentication auth) {
-        Long taskerId = userRepository.findByEmail(auth.getName()).orElseThrow().getId();
+        Long taskerId = currentUser.id(auth);
         String proposal = (String) body.get("proposal");
         BigDecimal proposedAmount = new BigDecimal(String.valueOf(body.get("proposedAmount")));
         String proposedDeadline = (String) body.get("proposedDeadline");
         Application app = jobService.applyToJob(id, taskerId, proposal, proposedAmount,
                 proposedDeadline != null ? LocalDate.parse(proposedDeadline) : null);
-        return ResponseEntity.ok(app);
+        return ResponseEntity.ok(jobService.getApplicationView(app.getId()).orElseThrow());
     }
 
     @GetMapping("/{id}/applications")
     public ResponseEntity<?> listApplications(@PathVariable Long id) {
-        List<Application> apps = jobService.listApplicationsForJob(id);
+        List<ApplicationView> apps = jobService.listApplicationsForJob(id);
         return ResponseEntity.ok(apps);
     }
 
     @PostMapping("/{jobId}/applications/{appId}/accept")
     public ResponseEntity<?> accept(@PathVariable Long jobId, @PathVariable Long appId) {
         Application app = jobService.updateApplicationStatus(jobId, appId, ApplicationStatus.ACCEPTED);
-        return ResponseEntity.ok(app);
+        return ResponseEntity.ok(jobService.getApplicationView(app.getId()).orElseThrow());
     }
 
     @PostMapping("/{jobId}/applications/{appId}/reject")
     public ResponseEntity<?> reject(@PathVariable Long jobId, @PathVariable Long appId) {
         Application app = jobService.updateApplicationStatus(jobId, appId, ApplicationStatus.REJECTED);
-        return ResponseEntity.ok(app);
+        return ResponseEntity.ok(jobService.getApplicationView(app.getId()).orElseThrow());
     }
 
     @PostMapping("/{id}/complete")
     public ResponseEntity<?> complete(@PathVariable Long id) {
         Job job = jobService.completeJob(id);
-        return ResponseEntity.ok(job);
+        return ResponseEntity.ok(jobService.getJobDetail(job.getId()).orElseThrow());
     }
 }
 
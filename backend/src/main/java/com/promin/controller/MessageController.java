@@ -1,34 +1,71 @@
 package com.promin.controller;
 
+import com.promin.entity.Conversation;
+import com.promin.entity.Message;
+import com.promin.security.CurrentUser;
+import com.promin.service.MessageService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collections;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/messages")
 public class MessageController {
 
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private CurrentUser currentUser;
+
     @GetMapping
-    public ResponseEntity<?> conversations() {
-        return ResponseEntity.ok(Collections.emptyList());
+    public ResponseEntity<?> conversations(Authentication auth) {
+        return ResponseEntity.ok(messageService.conversations(currentUser.id(auth)));
     }
 
+    /**
+     * History of a conversation, newest first; pass {@code nextCursor} back as {@code before}.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> messages(@PathVariable Long id) {
-        return ResponseEntity.ok(Collections.emptyList());
+    public ResponseEntity<?> messages(@PathVariable Long id,
+                                      @RequestParam(required = false) Long before,
+                                      @RequestParam(defaultValue = "30") int size,
+                                      Authentication auth) {
+        return ResponseEntity.ok(messageService.history(id, currentUser.id(auth), before, size));
     }
 
+    /**
+     * Sends to {@code conversationId}, or opens the conversation for {@code jobId} (and
+     * {@code taskerId} when the caller is the requester) first.
+     */
     @PostMapping
-    public ResponseEntity<?> send(@RequestBody Map<String, Object> body) {
-        return ResponseEntity.ok(Map.of("status", "sent"));
+    public ResponseEntity<?> send(@RequestBody Map<String, Object> body, Authentication auth) {
+        Long userId = currentUser.id(auth);
+        Long conversationId = asLong(body.get("conversationId"));
+        if (conversationId == null) {
+            Long jobId = asLong(body.get("jobId"));
+            if (jobId == null) {
+                throw new IllegalArgumentException("conversationId or jobId is required");
+            }
+            Conversation conversation = messageService.openConversation(jobId, userId, asLong(body.get("taskerId")));
+            conversationId = conversation.getId();
+        }
+        Message message = messageService.send(conversationId, userId, (String) body.get("content"));
+        return ResponseEntity.ok(message);
     }
 
     @PutMapping("/{id}/read")
-    public ResponseEntity<?> markRead(@PathVariable Long id) {
+    public ResponseEntity<?> markRead(@PathVariable Long id,
+                                      @RequestBody(required = false) Map<String, Object> body,
+                                      Authentication auth) {
+        messageService.markRead(id, currentUser.id(auth), body != null ? asLong(body.get("upTo")) : null);
         return ResponseEntity.ok(Map.of("status", "read"));
     }
-}
-
 
+    private static Long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.promin.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promin.security.CurrentUser;
+import com.promin.service.MessageHub;
+import com.promin.service.MessageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Chat socket at {@code /ws/messages}. Clients send JSON commands:
+ * {@code subscribe}/{@code unsubscribe} with a {@code conversationId}, {@code send} with
+ * {@code content}, and {@code read} with an optional {@code upTo}. Messages of subscribed
+ * conversations arrive as {@code {"type":"message","message":{...}}}.
+ */
+@Component
+public class MessageSocketHandler extends TextWebSocketHandler {
+
+    private static final String USER_ID = "userId";
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageHub messageHub;
+
+    @Autowired
+    private CurrentUser currentUser;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        // The handshake went through the JWT filter, so the principal is the caller's authentication
+        if (!(session.getPrincipal() instanceof Authentication auth)) {
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        Long userId = currentUser.id(auth);
+        session.getAttributes().put(USER_ID, userId);
+        messageHub.register(session, userId);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage text) throws IOException {
+        Long userId = (Long) session.getAttributes().get(USER_ID);
+        JsonNode command = objectMapper.readTree(text.getPayload());
+        String type = command.path("type").asText();
+        Long conversationId = command.hasNonNull("conversationId") ? command.get("conversationId").asLong() : null;
+        try {
+            if (conversationId == null) {
+                throw new IllegalArgumentException("conversationId is required");
+            }
+            switch (type) {
+                case "subscribe" -> {
+                    messageService.requireParticipant(conversationId, userId);
+                    messageHub.subscribe(session, conversationId);
+                }
+                case "unsubscribe" -> messageHub.unsubscribe(session, conversationId);
+                case "send" -> messageService.send(conversationId, userId, command.path("content").asText(null));
+                case "read" -> messageService.markRead(conversationId, userId,
+                        command.hasNonNull("upTo") ? command.get("upTo").asLong() : null);
+                default -> throw new IllegalArgumentException("Unknown command: " + type);
+            }
+        } catch (IllegalArgumentException e) {
+            messageHub.sendTo(session, objectMapper.writeValueAsString(Map.of(
+                    "type", "error",
+                    "command", type,
+                    "message", e.getMessage())));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        messageHub.unregister(session);
+    }
+}
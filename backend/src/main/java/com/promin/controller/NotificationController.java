@@ -1,34 +1,82 @@
 package com.promin.controller;
 
+import com.promin.entity.Notification;
+import com.promin.security.CurrentUser;
+import com.promin.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/notifications")
 public class NotificationController {
 
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private CurrentUser currentUser;
+
     @GetMapping
-    public ResponseEntity<?> list() {
-        return ResponseEntity.ok(Collections.emptyList());
+    public ResponseEntity<?> list(@RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(defaultValue = "20") int size,
+                                  Authentication auth) {
+        Long userId = currentUser.id(auth);
+        Slice<Notification> notifications = notificationService.list(userId, PageRequest.of(page, size));
+        Map<String, Object> res = new HashMap<>();
+        res.put("content", notifications.getContent());
+        res.put("hasNext", notifications.hasNext());
+        res.put("unreadCount", notificationService.unreadCounts(userId).notifications());
+        return ResponseEntity.ok(res);
+    }
+
+    /**
+     * Unread notifications and messages, served from memory.
+     */
+    @GetMapping("/unread-count")
+    public ResponseEntity<?> unreadCount(Authentication auth) {
+        return ResponseEntity.ok(notificationService.unreadCounts(currentUser.id(auth)));
+    }
+
+    /**
+     * Event stream of new notifications. Browsers' EventSource can't set headers, so the
+     * token may also be passed as the {@code token} query parameter on this path.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             Authentication auth) {
+        return notificationService.subscribe(currentUser.id(auth), lastEventId);
     }
 
     @PutMapping("/{id}/read")
-    public ResponseEntity<?> markRead(@PathVariable Long id) {
+    public ResponseEntity<?> markRead(@PathVariable Long id, Authentication auth) {
+        if (!notificationService.markRead(id, currentUser.id(auth))) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.ok(Map.of("status", "read"));
     }
 
     @PutMapping("/read-all")
-    public ResponseEntity<?> markAllRead() {
+    public ResponseEntity<?> markAllRead(@RequestBody(required = false) Map<String, Object> body,
+                                         Authentication auth) {
+        Object upTo = body != null ? body.get("upTo") : null;
+        notificationService.markAllRead(currentUser.id(auth), upTo instanceof Number number ? number.longValue() : null);
         return ResponseEntity.ok(Map.of("status", "all-read"));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(@PathVariable Long id) {
+    public ResponseEntity<?> delete(@PathVariable Long id, Authentication auth) {
+        if (!notificationService.delete(id, currentUser.id(auth))) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.noContent().build();
     }
 }
-
-
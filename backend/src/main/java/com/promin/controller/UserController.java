@@ -1,7 +1,12 @@
 package com.promin.controller;
 
+import com.promin.dto.UserProfile;
+import com.promin.entity.AuditAction;
 import com.promin.entity.User;
 import com.promin.repository.UserRepository;
+import com.promin.security.CurrentUser;
+import com.promin.service.AuditService;
+import com.promin.service.AvatarService;
 import com.promin.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +14,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,22 +28,32 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CurrentUser currentUser;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AvatarService avatarService;
+
     @GetMapping("/profile")
     public ResponseEntity<?> getProfile(Authentication auth) {
-        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
-        return ResponseEntity.ok(user);
+        User user = userRepository.findById(currentUser.id(auth)).orElseThrow();
+        return ResponseEntity.ok(UserProfile.from(user));
     }
 
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(@RequestBody User payload, Authentication auth) {
-        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        User user = userRepository.findById(currentUser.id(auth)).orElseThrow();
         user.setFirstName(payload.getFirstName());
         user.setLastName(payload.getLastName());
         user.setPhone(payload.getPhone());
         user.setLocation(payload.getLocation());
         user.setBio(payload.getBio());
         userRepository.save(user);
-        return ResponseEntity.ok(user);
+        auditService.record(AuditAction.UPDATE_PROFILE, "USER", user.getId(), null);
+        return ResponseEntity.ok(UserProfile.from(user));
     }
 
     @PutMapping("/password")
@@ -49,17 +65,19 @@ public class UserController {
     }
 
     @PostMapping("/avatar")
-    public ResponseEntity<?> uploadAvatar(@RequestParam("file") MultipartFile file, Authentication auth) {
-        // Mock: return a placeholder URL
+    public ResponseEntity<?> uploadAvatar(@RequestParam("file") MultipartFile file, Authentication auth)
+            throws IOException {
+        Long userId = currentUser.id(auth);
+        String url = avatarService.replaceAvatar(userId, file);
+        auditService.record(AuditAction.UPDATE_PROFILE, "USER", userId, "avatar");
         Map<String, Object> res = new HashMap<>();
-        res.put("url", "/uploads/" + file.getOriginalFilename());
+        res.put("url", url);
         return ResponseEntity.ok(res);
     }
 
     @DeleteMapping
     public ResponseEntity<?> deleteAccount(Authentication auth) {
-        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
-        userRepository.delete(user);
+        userService.deleteUser(currentUser.id(auth));
         return ResponseEntity.noContent().build();
     }
 }
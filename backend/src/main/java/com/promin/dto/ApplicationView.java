@@ -0,0 +1,33 @@
+package com.promin.dto;
+
+import com.promin.entity.ApplicationStatus;
+import com.promin.entity.JobStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An application together with the job title and the tasker, without loading either entity.
+ */
+public record ApplicationView(Long id,
+                              String proposal,
+                              BigDecimal proposedAmount,
+                              LocalDateTime proposedDeadline,
+                              ApplicationStatus status,
+                              LocalDateTime createdAt,
+                              Long jobId,
+                              String jobTitle,
+                              JobStatus jobStatus,
+                              UserSummary tasker) {
+
+    /**
+     * Constructor used by JPQL projections.
+     */
+    public ApplicationView(Long id, String proposal, BigDecimal proposedAmount, LocalDateTime proposedDeadline,
+                           ApplicationStatus status, LocalDateTime createdAt,
+                           Long jobId, String jobTitle, JobStatus jobStatus,
+                           Long taskerId, String taskerFirstName, String taskerLastName, String taskerAvatar) {
+        this(id, proposal, proposedAmount, proposedDeadline, status, createdAt, jobId, jobTitle, jobStatus,
+                new UserSummary(taskerId, taskerFirstName, taskerLastName, taskerAvatar));
+    }
+}
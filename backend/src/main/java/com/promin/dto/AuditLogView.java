@@ -0,0 +1,28 @@
+package com.promin.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the admin audit log, with the acting user (if any) flattened in.
+ */
+public record AuditLogView(Long id,
+                           String action,
+                           String details,
+                           Long resourceId,
+                           String resourceType,
+                           String ipAddress,
+                           LocalDateTime timestamp,
+                           Actor user) {
+
+    public record Actor(Long id, String firstName, String lastName, String email) {}
+
+    /**
+     * Constructor used by JPQL projections.
+     */
+    public AuditLogView(Long id, String action, String details, Long resourceId, String resourceType,
+                        String ipAddress, LocalDateTime timestamp,
+                        Long userId, String firstName, String lastName, String email) {
+        this(id, action, details, resourceId, resourceType, ipAddress, timestamp,
+                userId != null ? new Actor(userId, firstName, lastName, email) : null);
+    }
+}
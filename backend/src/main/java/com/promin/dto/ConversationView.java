@@ -0,0 +1,41 @@
+package com.promin.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A conversation as listed for one participant: the job, the other participant, the latest
+ * message and how far the other participant has read, without loading any entity.
+ */
+public record ConversationView(Long id,
+                               Long jobId,
+                               String jobTitle,
+                               Participant otherUser,
+                               LastMessage lastMessage,
+                               long otherLastReadId,
+                               long unreadCount) {
+
+    public record Participant(Long id, String name, String avatar, boolean isOnline) {}
+
+    public record LastMessage(Long id, Long senderId, String content, LocalDateTime timestamp) {}
+
+    /**
+     * Constructor used by JPQL projections.
+     */
+    public ConversationView(Long id, Long jobId, String jobTitle,
+                            Long otherId, String otherFirstName, String otherLastName, String otherAvatar,
+                            Long lastMessageId, Long lastSenderId, String lastContent, LocalDateTime lastTimestamp,
+                            Long otherLastReadId) {
+        this(id, jobId, jobTitle,
+                new Participant(otherId, otherFirstName + " " + otherLastName, otherAvatar, false),
+                lastMessageId != null ? new LastMessage(lastMessageId, lastSenderId, lastContent, lastTimestamp) : null,
+                otherLastReadId, 0);
+    }
+
+    /**
+     * Overlays state that lives in memory rather than in the row.
+     */
+    public ConversationView withLiveState(boolean otherOnline, LastMessage latest, long unread) {
+        Participant other = new Participant(otherUser.id(), otherUser.name(), otherUser.avatar(), otherOnline);
+        return new ConversationView(id, jobId, jobTitle, other, latest, otherLastReadId, unread);
+    }
+}
@@ -0,0 +1,46 @@
+package com.promin.dto;
+
+import com.promin.entity.JobStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Full view of a single job.
+ */
+public record JobDetail(Long id,
+                        String title,
+                        String description,
+                        BigDecimal budget,
+                        LocalDateTime deadline,
+                        String location,
+                        JobStatus status,
+                        LocalDateTime createdAt,
+                        LocalDateTime updatedAt,
+                        LocalDateTime completedAt,
+                        UserSummary requester,
+                        UserSummary assignedTasker,
+                        long applicationCount,
+                        List<String> skills) {
+
+    /**
+     * Constructor used by JPQL projections; skills are attached afterwards with {@link #withSkills}.
+     */
+    public JobDetail(Long id, String title, String description, BigDecimal budget, LocalDateTime deadline,
+                     String location, JobStatus status, LocalDateTime createdAt, LocalDateTime updatedAt,
+                     LocalDateTime completedAt,
+                     Long requesterId, String requesterFirstName, String requesterLastName, String requesterAvatar,
+                     Long taskerId, String taskerFirstName, String taskerLastName, String taskerAvatar,
+                     Long applicationCount) {
+        this(id, title, description, budget, deadline, location, status, createdAt, updatedAt, completedAt,
+                new UserSummary(requesterId, requesterFirstName, requesterLastName, requesterAvatar),
+                taskerId != null ? new UserSummary(taskerId, taskerFirstName, taskerLastName, taskerAvatar) : null,
+                applicationCount, List.of());
+    }
+
+    public JobDetail withSkills(List<String> skills) {
+        return new JobDetail(id, title, description, budget, deadline, location, status, createdAt, updatedAt,
+                completedAt, requester, assignedTasker, applicationCount, skills);
+    }
+}
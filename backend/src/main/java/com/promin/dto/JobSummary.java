@@ -0,0 +1,43 @@
+package com.promin.dto;
+
+import com.promin.entity.JobStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Row of a job listing. The description is truncated to {@link #DESCRIPTION_PREVIEW_LENGTH}
+ * characters by the query so list payloads stay bounded.
+ */
+public record JobSummary(Long id,
+                         String title,
+                         String description,
+                         BigDecimal budget,
+                         LocalDateTime deadline,
+                         String location,
+                         JobStatus status,
+                         LocalDateTime createdAt,
+                         UserSummary requester,
+                         long applicationCount,
+                         List<String> skills) {
+
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 300;
+
+    /**
+     * Constructor used by JPQL projections; skills are attached afterwards with {@link #withSkills}.
+     */
+    public JobSummary(Long id, String title, String description, BigDecimal budget, LocalDateTime deadline,
+                      String location, JobStatus status, LocalDateTime createdAt,
+                      Long requesterId, String requesterFirstName, String requesterLastName, String requesterAvatar,
+                      Long applicationCount) {
+        this(id, title, description, budget, deadline, location, status, createdAt,
+                new UserSummary(requesterId, requesterFirstName, requesterLastName, requesterAvatar),
+                applicationCount, List.of());
+    }
+
+    public JobSummary withSkills(List<String> skills) {
+        return new JobSummary(id, title, description, budget, deadline, location, status, createdAt,
+                requester, applicationCount, skills);
+    }
+}
@@ -0,0 +1,31 @@
+package com.promin.dto;
+
+import com.promin.entity.Role;
+import com.promin.entity.User;
+import com.promin.entity.UserStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The signed-in user's own profile.
+ */
+public record UserProfile(Long id,
+                          String firstName,
+                          String lastName,
+                          String email,
+                          String phone,
+                          String location,
+                          String bio,
+                          String avatar,
+                          Role role,
+                          UserStatus status,
+                          Boolean emailVerified,
+                          LocalDateTime lastLoginAt,
+                          LocalDateTime createdAt) {
+
+    public static UserProfile from(User user) {
+        return new UserProfile(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getPhone(), user.getLocation(), user.getBio(), user.getAvatar(), user.getRole(),
+                user.getStatus(), user.getEmailVerified(), user.getLastLoginAt(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,7 @@
+package com.promin.dto;
+
+/**
+ * Minimal public view of a user embedded in other read models.
+ */
+public record UserSummary(Long id, String firstName, String lastName, String avatar) {
+}
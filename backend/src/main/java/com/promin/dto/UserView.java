@@ -0,0 +1,29 @@
+package com.promin.dto;
+
+import com.promin.entity.Role;
+import com.promin.entity.User;
+import com.promin.entity.UserStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the admin user listing. Never carries the password hash or any association.
+ */
+public record UserView(Long id,
+                       String firstName,
+                       String lastName,
+                       String email,
+                       Role role,
+                       UserStatus status,
+                       String location,
+                       String avatar,
+                       Boolean emailVerified,
+                       LocalDateTime lastLoginAt,
+                       LocalDateTime createdAt) {
+
+    public static UserView from(User user) {
+        return new UserView(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getRole(), user.getStatus(), user.getLocation(), user.getAvatar(),
+                user.getEmailVerified(), user.getLastLoginAt(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,18 @@
+package com.promin.entity;
+
+public enum AuditAction {
+    LOGIN,
+    REGISTER,
+    CREATE_JOB,
+    UPDATE_JOB,
+    DELETE_JOB,
+    APPLY_JOB,
+    ACCEPT_APPLICATION,
+    REJECT_APPLICATION,
+    COMPLETE_JOB,
+    UPDATE_PROFILE,
+    ADMIN_UPDATE_USER,
+    ADMIN_DELETE_USER,
+    ADMIN_FLAG_JOB,
+    ADMIN_EXPORT
+}
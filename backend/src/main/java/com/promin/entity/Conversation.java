@@ -0,0 +1,128 @@
+package com.promin.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "conversations")
+@EntityListeners(AuditingEntityListener.class)
+public class Conversation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    
+    @Column(name = "requester_id", nullable = false)
+    private Long requesterId;
+    
+    @Column(name = "tasker_id", nullable = false)
+    private Long taskerId;
+    
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+    
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+    
+    @Column(name = "requester_last_read_id", nullable = false)
+    private long requesterLastReadId;
+    
+    @Column(name = "tasker_last_read_id", nullable = false)
+    private long taskerLastReadId;
+    
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public Conversation() {}
+    
+    public Conversation(Long jobId, Long requesterId, Long taskerId) {
+        this.jobId = jobId;
+        this.requesterId = requesterId;
+        this.taskerId = taskerId;
+    }
+    
+    public long lastReadId(Long userId) {
+        return requesterId.equals(userId) ? requesterLastReadId : taskerLastReadId;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+    
+    public Long getRequesterId() {
+        return requesterId;
+    }
+    
+    public void setRequesterId(Long requesterId) {
+        this.requesterId = requesterId;
+    }
+    
+    public Long getTaskerId() {
+        return taskerId;
+    }
+    
+    public void setTaskerId(Long taskerId) {
+        this.taskerId = taskerId;
+    }
+    
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+    
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+    
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+    
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+    
+    public long getRequesterLastReadId() {
+        return requesterLastReadId;
+    }
+    
+    public void setRequesterLastReadId(long requesterLastReadId) {
+        this.requesterLastReadId = requesterLastReadId;
+    }
+    
+    public long getTaskerLastReadId() {
+        return taskerLastReadId;
+    }
+    
+    public void setTaskerLastReadId(long taskerLastReadId) {
+        this.taskerLastReadId = taskerLastReadId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
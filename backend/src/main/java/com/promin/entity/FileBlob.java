@@ -0,0 +1,54 @@
+package com.promin.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored content shared by every {@link FileResource} with the same SHA-256 hash.
+ * Reference counts are only changed through the atomic updates in the repository.
+ */
+@Entity
+@Table(name = "file_blobs")
+public class FileBlob {
+    
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+    
+    @Column(name = "size", nullable = false)
+    private Long size;
+    
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+    
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+    
+    // Constructors
+    public FileBlob() {}
+    
+    // Getters
+    public String getHash() {
+        return hash;
+    }
+    
+    public Long getSize() {
+        return size;
+    }
+    
+    public Integer getRefCount() {
+        return refCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getReleasedAt() {
+        return releasedAt;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -11,7 +12,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "jobs")
@@ -42,10 +45,14 @@ public class Job {
     @Size(max = 100)
     private String location;
     
+    // Skill names as sent by clients; JobService interns them into skillIds, which is what's stored
+    @Transient
+    private List<String> skills = new ArrayList<>();
+    
     @ElementCollection
     @CollectionTable(name = "job_skills", joinColumns = @JoinColumn(name = "job_id"))
-    @Column(name = "skill")
-    private List<String> skills = new ArrayList<>();
+    @Column(name = "skill_id")
+    private Set<Integer> skillIds = new HashSet<>();
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -148,6 +155,14 @@ public class Job {
         this.skills = skills;
     }
     
+    public Set<Integer> getSkillIds() {
+        return skillIds;
+    }
+    
+    public void setSkillIds(Set<Integer> skillIds) {
+        this.skillIds = skillIds;
+    }
+    
     public JobStatus getStatus() {
         return status;
     }
@@ -0,0 +1,81 @@
+package com.promin.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A chat message. The id is assigned by {@code MessageIdGenerator} before the row is written,
+ * because messages are delivered first and persisted in batches afterwards.
+ */
+@Entity
+@Table(name = "messages")
+public class Message {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "conversation_id", nullable = false)
+    private Long conversationId;
+    
+    @Column(name = "sender_id", nullable = false)
+    private Long senderId;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public Message() {}
+    
+    public Message(Long id, Long conversationId, Long senderId, String content, LocalDateTime createdAt) {
+        this.id = id;
+        this.conversationId = conversationId;
+        this.senderId = senderId;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getConversationId() {
+        return conversationId;
+    }
+    
+    public void setConversationId(Long conversationId) {
+        this.conversationId = conversationId;
+    }
+    
+    public Long getSenderId() {
+        return senderId;
+    }
+    
+    public void setSenderId(Long senderId) {
+        this.senderId = senderId;
+    }
+    
+    public String getContent() {
+        return content;
+    }
+    
+    public void setContent(String content) {
+        this.content = content;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,96 @@
+package com.promin.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "metric_rollups")
+@IdClass(MetricRollup.Key.class)
+public class MetricRollup {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric", nullable = false)
+    private RollupMetric metric;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false)
+    private RollupGranularity granularity;
+    
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "total", precision = 19, scale = 2, nullable = false)
+    private BigDecimal total = BigDecimal.ZERO;
+    
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private RollupMetric metric;
+        private RollupGranularity granularity;
+        private LocalDateTime bucketStart;
+        
+        public Key() {}
+        
+        public Key(RollupMetric metric, RollupGranularity granularity, LocalDateTime bucketStart) {
+            this.metric = metric;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return metric == key.metric && granularity == key.granularity
+                    && Objects.equals(bucketStart, key.bucketStart);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(metric, granularity, bucketStart);
+        }
+    }
+    
+    // Constructors
+    public MetricRollup() {}
+    
+    // Getters and Setters
+    public RollupMetric getMetric() {
+        return metric;
+    }
+    
+    public void setMetric(RollupMetric metric) {
+        this.metric = metric;
+    }
+    
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(RollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,8 @@
+package com.promin.entity;
+
+public enum NotificationType {
+    APPLICATION_RECEIVED,
+    APPLICATION_ACCEPTED,
+    APPLICATION_REJECTED,
+    JOB_COMPLETED
+}
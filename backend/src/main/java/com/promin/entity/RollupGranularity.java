@@ -0,0 +1,6 @@
+package com.promin.entity;
+
+public enum RollupGranularity {
+    HOUR,
+    DAY
+}
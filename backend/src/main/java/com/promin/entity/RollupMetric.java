@@ -0,0 +1,10 @@
+package com.promin.entity;
+
+public enum RollupMetric {
+    SIGNUPS,
+    JOBS_POSTED,
+    JOBS_COMPLETED,
+    APPLICATIONS,
+    PAYMENT_VOLUME,
+    PLATFORM_REVENUE
+}
@@ -0,0 +1,37 @@
+package com.promin.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * An interned skill name; jobs reference skills by id. Rows are only created through
+ * {@code SkillRepository.insertIfAbsent}, so concurrent writers never duplicate a skill.
+ */
+@Entity
+@Table(name = "skills")
+public class Skill {
+    
+    @Id
+    private Integer id;
+    
+    @Column(nullable = false, length = 100)
+    private String name;
+    
+    @Column(name = "normalized_name", nullable = false, length = 100)
+    private String normalizedName;
+    
+    // Constructors
+    public Skill() {}
+    
+    // Getters
+    public Integer getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+}
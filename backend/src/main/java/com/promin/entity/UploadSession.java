@@ -0,0 +1,157 @@
+package com.promin.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A chunked upload in progress. Received chunks are tracked in {@code upload_chunks}.
+ */
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession {
+    
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "job_id")
+    private Long jobId;
+    
+    @Column(name = "original_name", nullable = false)
+    private String originalName;
+    
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+    
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+    
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+    
+    @Column(name = "chunk_count", nullable = false)
+    private Integer chunkCount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UploadStatus status = UploadStatus.OPEN;
+    
+    @Column(name = "file_id")
+    private Long fileId;
+    
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public UploadSession() {}
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getJobId() {
+        return jobId;
+    }
+    
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+    
+    public String getOriginalName() {
+        return originalName;
+    }
+    
+    public void setOriginalName(String originalName) {
+        this.originalName = originalName;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public Long getTotalSize() {
+        return totalSize;
+    }
+    
+    public void setTotalSize(Long totalSize) {
+        this.totalSize = totalSize;
+    }
+    
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+    
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    
+    public Integer getChunkCount() {
+        return chunkCount;
+    }
+    
+    public void setChunkCount(Integer chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+    
+    public UploadStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(UploadStatus status) {
+        this.status = status;
+    }
+    
+    public Long getFileId() {
+        return fileId;
+    }
+    
+    public void setFileId(Long fileId) {
+        this.fileId = fileId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    // Helper methods
+    
+    /**
+     * Byte length of chunk {@code index}; only the last chunk may be shorter than the chunk size.
+     */
+    public int chunkLength(int index) {
+        long start = (long) index * chunkSize;
+        return (int) Math.min(chunkSize, totalSize - start);
+    }
+}
@@ -0,0 +1,7 @@
+package com.promin.entity;
+
+public enum UploadStatus {
+    OPEN,
+    COMPLETING,
+    COMPLETED
+}
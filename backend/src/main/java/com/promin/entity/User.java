@@ -67,6 +67,9 @@ public class User {
     @Column(name = "last_login_at")
     private LocalDateTime lastLoginAt;
     
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+    
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -204,6 +207,14 @@ public class User {
         this.lastLoginAt = lastLoginAt;
     }
     
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
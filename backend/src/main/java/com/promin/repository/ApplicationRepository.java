@@ -1,40 +1,73 @@
 package com.promin.repository;
 
+import com.promin.dto.ApplicationView;
 import com.promin.entity.Application;
 import com.promin.entity.ApplicationStatus;
 import com.promin.entity.Job;
 import com.promin.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
     
+    String APPLICATION_VIEW = "new com.promin.dto.ApplicationView(a.id, a.proposal, a.proposedAmount, " +
+           "a.proposedDeadline, a.status, a.createdAt, j.id, j.title, j.status, " +
+           "t.id, t.firstName, t.lastName, t.avatar) FROM Application a JOIN a.job j JOIN a.tasker t";
+    
     List<Application> findByJob(Job job);
     
     List<Application> findByTasker(User tasker);
     
     List<Application> findByStatus(ApplicationStatus status);
     
+    boolean existsByJobIdAndTaskerId(Long jobId, Long taskerId);
+    
+    // Everything a recommendation profile needs from one query: job, budget, job and application status
+    @Query("SELECT j.id, j.budget, j.status, a.status FROM Application a JOIN a.job j WHERE a.tasker.id = :taskerId")
+    List<Object[]> findHistoryByTaskerId(@Param("taskerId") Long taskerId);
+    
     Page<Application> findByTasker(User tasker, Pageable pageable);
     
     Page<Application> findByJob(Job job, Pageable pageable);
     
+    @Query("SELECT " + APPLICATION_VIEW + " WHERE a.tasker = :tasker ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApplicationView> findViewsByTasker(@Param("tasker") User tasker);
+    
+    @Query("SELECT " + APPLICATION_VIEW + " WHERE j.id = :jobId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApplicationView> findViewsByJobId(@Param("jobId") Long jobId);
+    
+    @Query("SELECT " + APPLICATION_VIEW + " WHERE a.id = :id")
+    Optional<ApplicationView> findViewById(@Param("id") Long id);
+    
+    @Query("SELECT " + APPLICATION_VIEW + " WHERE a.tasker = :tasker ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<ApplicationView> findFirstByTaskerKeyset(@Param("tasker") User tasker, Pageable pageable);
+    
+    @Query("SELECT " + APPLICATION_VIEW + " WHERE a.tasker = :tasker AND " +
+           "(a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<ApplicationView> findByTaskerKeysetAfter(@Param("tasker") User tasker,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+    
     @Query("SELECT a FROM Application a WHERE a.job = :job AND a.status = :status")
     List<Application> findByJobAndStatus(@Param("job") Job job, @Param("status") ApplicationStatus status);
     
     @Query("SELECT a FROM Application a WHERE a.tasker = :tasker AND a.status = :status")
     List<Application> findByTaskerAndStatus(@Param("tasker") User tasker, @Param("status") ApplicationStatus status);
     
-    @Query("SELECT a FROM Application a WHERE a.job.requester = :requester")
-    List<Application> findByJobRequester(@Param("requester") User requester);
+    @Query("SELECT COUNT(a) FROM Application a WHERE a.job.requester.id = :requesterId")
+    long countByJobRequesterId(@Param("requesterId") Long requesterId);
     
     @Query("SELECT COUNT(a) FROM Application a WHERE a.job = :job")
     long countByJob(@Param("job") Job job);
@@ -42,6 +75,9 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     @Query("SELECT COUNT(a) FROM Application a WHERE a.tasker = :tasker")
     long countByTasker(@Param("tasker") User tasker);
     
+    @Query("SELECT a.status, COUNT(a) FROM Application a WHERE a.tasker = :tasker GROUP BY a.status")
+    List<Object[]> countByTaskerGroupedByStatus(@Param("tasker") User tasker);
+    
     @Query("SELECT COUNT(a) FROM Application a WHERE a.tasker = :tasker AND a.status = :status")
     long countByTaskerAndStatus(@Param("tasker") User tasker, @Param("status") ApplicationStatus status);
     
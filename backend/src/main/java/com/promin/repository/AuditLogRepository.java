@@ -1,45 +1,45 @@
 package com.promin.repository;
 
+import com.promin.dto.AuditLogView;
 import com.promin.entity.AuditLog;
-import com.promin.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     
-    List<AuditLog> findByUser(User user);
-    
-    List<AuditLog> findByAction(String action);
-    
-    Page<AuditLog> findByUser(User user, Pageable pageable);
-    
-    @Query("SELECT a FROM AuditLog a WHERE " +
+    /**
+     * The timestamp range is always bound so MySQL only scans the monthly partitions it covers.
+     */
+    String VIEW_CRITERIA = "a.timestamp >= :startDate AND a.timestamp < :endDate AND " +
+           "(:action IS NULL OR a.action = :action) AND " +
+           "(:userId IS NULL OR u.id = :userId) AND " +
            "(:search IS NULL OR :search = '' OR " +
            "LOWER(a.action) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(a.details) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
-           "(:action IS NULL OR a.action = :action) AND " +
-           "(:userId IS NULL OR a.user.id = :userId) AND " +
-           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
-           "(:endDate IS NULL OR a.timestamp <= :endDate)")
-    Page<AuditLog> findBySearchCriteria(@Param("search") String search,
-                                       @Param("action") String action,
-                                       @Param("userId") Long userId,
-                                       @Param("startDate") LocalDateTime startDate,
-                                       @Param("endDate") LocalDateTime endDate,
-                                       Pageable pageable);
-    
-    @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :startDate")
-    List<AuditLog> findByTimestampAfter(@Param("startDate") LocalDateTime startDate);
+           "LOWER(a.details) LIKE LOWER(CONCAT('%', :search, '%')))";
     
-    @Query("SELECT a FROM AuditLog a WHERE a.timestamp BETWEEN :startDate AND :endDate")
-    List<AuditLog> findByTimestampBetween(@Param("startDate") LocalDateTime startDate, 
-                                         @Param("endDate") LocalDateTime endDate);
+    @Query(value = "SELECT new com.promin.dto.AuditLogView(a.id, a.action, a.details, a.resourceId, a.resourceType, " +
+           "a.ipAddress, a.timestamp, u.id, u.firstName, u.lastName, u.email) " +
+           "FROM AuditLog a LEFT JOIN a.user u WHERE " + VIEW_CRITERIA + " ORDER BY a.timestamp DESC, a.id DESC",
+           countQuery = "SELECT COUNT(a) FROM AuditLog a LEFT JOIN a.user u WHERE " + VIEW_CRITERIA)
+    Page<AuditLogView> findViewsBySearchCriteria(@Param("search") String search,
+                                                 @Param("action") String action,
+                                                 @Param("userId") Long userId,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate,
+                                                 Pageable pageable);
+
+    // In place of the ON DELETE SET NULL the partitioned table cannot have
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuditLog a SET a.user = null WHERE a.user.id = :userId")
+    int detachUser(@Param("userId") Long userId);
 }
@@ -0,0 +1,41 @@
+package com.promin.repository;
+
+import com.promin.dto.ConversationView;
+import com.promin.entity.Conversation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+    
+    Optional<Conversation> findByJobIdAndTaskerId(Long jobId, Long taskerId);
+    
+    @Query("SELECT new com.promin.dto.ConversationView(c.id, j.id, j.title, " +
+           "o.id, o.firstName, o.lastName, o.avatar, m.id, m.senderId, m.content, m.createdAt, " +
+           "CASE WHEN c.requesterId = :userId THEN c.taskerLastReadId ELSE c.requesterLastReadId END) " +
+           "FROM Conversation c JOIN Job j ON j.id = c.jobId " +
+           "JOIN User o ON o.id = CASE WHEN c.requesterId = :userId THEN c.taskerId ELSE c.requesterId END " +
+           "LEFT JOIN Message m ON m.id = c.lastMessageId " +
+           "WHERE c.requesterId = :userId OR c.taskerId = :userId " +
+           "ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<ConversationView> findViewsByParticipant(@Param("userId") Long userId, Pageable pageable);
+    
+    // Only ever moves forward, so a stale client can't mark newer messages unread again
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE conversations SET " +
+           "requester_last_read_id = CASE WHEN requester_id = :userId " +
+           "THEN GREATEST(requester_last_read_id, :upTo) ELSE requester_last_read_id END, " +
+           "tasker_last_read_id = CASE WHEN tasker_id = :userId " +
+           "THEN GREATEST(tasker_last_read_id, :upTo) ELSE tasker_last_read_id END " +
+           "WHERE id = :id", nativeQuery = true)
+    int advanceReadPointer(@Param("id") Long id, @Param("userId") Long userId, @Param("upTo") long upTo);
+}
@@ -0,0 +1,52 @@
+package com.promin.repository;
+
+import com.promin.entity.FileBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+    
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO file_blobs (hash, size, ref_count) VALUES (:hash, :size, 1) " +
+           "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, released_at = NULL", nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("size") long size);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE file_blobs SET ref_count = ref_count - 1, " +
+           "released_at = CASE WHEN ref_count = 0 THEN CURRENT_TIMESTAMP ELSE released_at END " +
+           "WHERE hash = :hash AND ref_count > 0", nativeQuery = true)
+    int release(@Param("hash") String hash);
+    
+    @Query("SELECT b.hash FROM FileBlob b WHERE b.refCount = 0 AND b.releasedAt < :before")
+    List<String> findReleasedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+    
+    /**
+     * Deletes an unreferenced blob row; returns 0 if it was referenced again in the meantime.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM file_blobs WHERE hash = :hash AND ref_count = 0 " +
+           "AND NOT EXISTS (SELECT 1 FROM file_resources f WHERE f.file_name = :hash)", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("hash") String hash);
+    
+    // Corrects counts left behind by rows removed outside the storage service (cascaded deletes)
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE file_blobs b LEFT JOIN (SELECT file_name, COUNT(*) AS c FROM file_resources " +
+           "GROUP BY file_name) f ON f.file_name = b.hash " +
+           "SET b.released_at = CASE WHEN COALESCE(f.c, 0) = 0 THEN COALESCE(b.released_at, CURRENT_TIMESTAMP) " +
+           "ELSE NULL END, b.ref_count = COALESCE(f.c, 0) " +
+           "WHERE b.ref_count <> COALESCE(f.c, 0)", nativeQuery = true)
+    int reconcileReferences();
+}
@@ -4,9 +4,12 @@ import com.promin.entity.FileResource;
 import com.promin.entity.Job;
 import com.promin.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FileResourceRepository extends JpaRepository<FileResource, Long> {
@@ -16,4 +19,10 @@ public interface FileResourceRepository extends JpaRepository<FileResource, Long
     List<FileResource> findByUser(User user);
     
     List<FileResource> findByContentType(String contentType);
+    
+    Optional<FileResource> findFirstByUserIdAndFileNameAndJobIsNull(Long userId, String fileName);
+    
+    @Query("SELECT COUNT(f) > 0 FROM FileResource f LEFT JOIN f.job j WHERE f.id = :id AND " +
+           "(f.user.id = :userId OR j.requester.id = :userId OR j.assignedTasker.id = :userId)")
+    boolean isAccessibleBy(@Param("id") Long id, @Param("userId") Long userId);
 }
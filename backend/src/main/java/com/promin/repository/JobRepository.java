@@ -1,10 +1,13 @@
 package com.promin.repository;
 
+import com.promin.dto.JobDetail;
+import com.promin.dto.JobSummary;
 import com.promin.entity.Job;
 import com.promin.entity.JobStatus;
 import com.promin.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,11 +15,19 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long> {
     
+    String JOB_SUMMARY = "new com.promin.dto.JobSummary(j.id, j.title, SUBSTRING(j.description, 1, " +
+           JobSummary.DESCRIPTION_PREVIEW_LENGTH + "), " +
+           "j.budget, j.deadline, j.location, j.status, j.createdAt, " +
+           "r.id, r.firstName, r.lastName, r.avatar, " +
+           "(SELECT COUNT(a) FROM Application a WHERE a.job = j))";
+    
     List<Job> findByRequester(User requester);
     
     List<Job> findByAssignedTasker(User tasker);
@@ -25,14 +36,15 @@ public interface JobRepository extends JpaRepository<Job, Long> {
     
     Page<Job> findByStatus(JobStatus status, Pageable pageable);
     
-    @Query("SELECT j FROM Job j WHERE " +
-           "(:search IS NULL OR :search = '' OR " +
+    String SEARCH_CRITERIA = "(:search IS NULL OR :search = '' OR " +
            "LOWER(j.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(j.description) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
            "(:status IS NULL OR j.status = :status) AND " +
            "(:minBudget IS NULL OR j.budget >= :minBudget) AND " +
            "(:maxBudget IS NULL OR j.budget <= :maxBudget) AND " +
-           "(:location IS NULL OR :location = '' OR LOWER(j.location) LIKE LOWER(CONCAT('%', :location, '%')))")
+           "(:location IS NULL OR :location = '' OR LOWER(j.location) LIKE LOWER(CONCAT('%', :location, '%')))";
+    
+    @Query("SELECT j FROM Job j WHERE " + SEARCH_CRITERIA)
     Page<Job> findBySearchCriteria(@Param("search") String search,
                                  @Param("status") JobStatus status,
                                  @Param("minBudget") BigDecimal minBudget,
@@ -40,12 +52,81 @@ public interface JobRepository extends JpaRepository<Job, Long> {
                                  @Param("location") String location,
                                  Pageable pageable);
     
-    @Query("SELECT j FROM Job j JOIN j.skills s WHERE s IN :skills")
-    Page<Job> findBySkills(@Param("skills") List<String> skills, Pageable pageable);
+    @Query(value = "SELECT " + JOB_SUMMARY + " FROM Job j JOIN j.requester r WHERE " + SEARCH_CRITERIA,
+           countQuery = "SELECT COUNT(j) FROM Job j WHERE " + SEARCH_CRITERIA)
+    Page<JobSummary> findSummariesBySearchCriteria(@Param("search") String search,
+                                                   @Param("status") JobStatus status,
+                                                   @Param("minBudget") BigDecimal minBudget,
+                                                   @Param("maxBudget") BigDecimal maxBudget,
+                                                   @Param("location") String location,
+                                                   Pageable pageable);
+    
+    @Query(value = "SELECT " + JOB_SUMMARY + " FROM Job j JOIN j.requester r",
+           countQuery = "SELECT COUNT(j) FROM Job j")
+    Page<JobSummary> findAllSummaries(Pageable pageable);
+    
+    @Query("SELECT " + JOB_SUMMARY + " FROM Job j JOIN j.requester r WHERE j.id IN :ids")
+    List<JobSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.promin.dto.JobDetail(j.id, j.title, j.description, j.budget, j.deadline, j.location, " +
+           "j.status, j.createdAt, j.updatedAt, j.completedAt, " +
+           "r.id, r.firstName, r.lastName, r.avatar, t.id, t.firstName, t.lastName, t.avatar, " +
+           "(SELECT COUNT(a) FROM Application a WHERE a.job = j)) " +
+           "FROM Job j JOIN j.requester r LEFT JOIN j.assignedTasker t WHERE j.id = :id")
+    Optional<JobDetail> findDetailById(@Param("id") Long id);
+    
+    @Query("SELECT " + JOB_SUMMARY + " FROM Job j JOIN j.requester r WHERE (:status IS NULL OR j.status = :status) " +
+           "ORDER BY j.createdAt DESC, j.id DESC")
+    Slice<JobSummary> findFirstByKeyset(@Param("status") JobStatus status, Pageable pageable);
+    
+    @Query("SELECT " + JOB_SUMMARY + " FROM Job j JOIN j.requester r WHERE (:status IS NULL OR j.status = :status) AND " +
+           "(j.createdAt < :createdAt OR (j.createdAt = :createdAt AND j.id < :id)) " +
+           "ORDER BY j.createdAt DESC, j.id DESC")
+    Slice<JobSummary> findByKeysetAfter(@Param("status") JobStatus status,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+    
+    @Query("SELECT j.id, j.title, j.description, j.location, j.status, j.budget, j.createdAt FROM Job j " +
+           "WHERE j.id > :afterId ORDER BY j.id")
+    List<Object[]> findIndexBatch(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT j.id FROM Job j WHERE j.requester.id = :requesterId")
+    List<Long> findIdsByRequesterId(@Param("requesterId") Long requesterId);
+    
+    @Query("SELECT j.id, s FROM Job j JOIN j.skillIds s WHERE j.id IN :ids")
+    List<Object[]> findSkillIdsByJobIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT j.id, j.requester.id, j.budget, j.deadline, j.createdAt FROM Job j " +
+           "WHERE j.status = com.promin.entity.JobStatus.OPEN AND j.id > :afterId ORDER BY j.id")
+    List<Object[]> findOpenRecommendationBatch(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Jobs requiring any of the skills; EXISTS rather than a join so a job is listed once
+    String HAS_ANY_SKILL = "EXISTS (SELECT 1 FROM Job js JOIN js.skillIds s WHERE js.id = j.id AND s IN :skillIds)";
+    
+    @Query(value = "SELECT " + JOB_SUMMARY + " FROM Job j JOIN j.requester r WHERE " + SEARCH_CRITERIA +
+                   " AND " + HAS_ANY_SKILL,
+           countQuery = "SELECT COUNT(j) FROM Job j WHERE " + SEARCH_CRITERIA + " AND " + HAS_ANY_SKILL)
+    Page<JobSummary> findSummariesBySearchCriteriaAndSkills(@Param("search") String search,
+                                                            @Param("status") JobStatus status,
+                                                            @Param("minBudget") BigDecimal minBudget,
+                                                            @Param("maxBudget") BigDecimal maxBudget,
+                                                            @Param("location") String location,
+                                                            @Param("skillIds") Collection<Integer> skillIds,
+                                                            Pageable pageable);
     
     @Query("SELECT j FROM Job j WHERE j.deadline < :deadline AND j.status != 'COMPLETED'")
     List<Job> findOverdueJobs(@Param("deadline") LocalDateTime deadline);
     
+    @Query("SELECT j.status, COUNT(j), SUM(j.budget) FROM Job j GROUP BY j.status")
+    List<Object[]> aggregateGroupedByStatus();
+    
+    @Query("SELECT j.status, COUNT(j), SUM(j.budget) FROM Job j WHERE j.requester = :requester GROUP BY j.status")
+    List<Object[]> aggregateByRequesterGroupedByStatus(@Param("requester") User requester);
+    
+    @Query("SELECT j.status, COUNT(j), SUM(j.budget) FROM Job j WHERE j.assignedTasker = :tasker GROUP BY j.status")
+    List<Object[]> aggregateByTaskerGroupedByStatus(@Param("tasker") User tasker);
+    
     @Query("SELECT COUNT(j) FROM Job j WHERE j.status = :status")
     long countByStatus(@Param("status") JobStatus status);
     
@@ -0,0 +1,23 @@
+package com.promin.repository;
+
+import com.promin.entity.Message;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface MessageRepository extends JpaRepository<Message, Long> {
+    
+    // Keyset history: ids increase with time, so (conversation_id, id) is the whole ordering
+    Slice<Message> findByConversationIdOrderByIdDesc(Long conversationId, Pageable pageable);
+    
+    Slice<Message> findByConversationIdAndIdLessThanOrderByIdDesc(Long conversationId, Long id, Pageable pageable);
+    
+    long countByConversationIdAndIdGreaterThanAndSenderIdNot(Long conversationId, Long id, Long senderId);
+    
+    long countByConversationIdAndIdGreaterThanAndSenderIdNotAndIdNotIn(Long conversationId, Long id, Long senderId,
+                                                                     Collection<Long> excludedIds);
+}
@@ -0,0 +1,100 @@
+package com.promin.repository;
+
+import com.promin.entity.MetricRollup;
+import com.promin.entity.RollupGranularity;
+import com.promin.entity.RollupMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MetricRollupRepository extends JpaRepository<MetricRollup, MetricRollup.Key> {
+    
+    String UPSERT = "INSERT INTO metric_rollups (metric, granularity, bucket_start, total) ";
+    
+    @Query("SELECT r FROM MetricRollup r WHERE r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<MetricRollup> findRange(@Param("granularity") RollupGranularity granularity,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+    
+    @Modifying
+    @Transactional
+    @Query(value = UPSERT + "VALUES (:metric, :granularity, :bucketStart, :delta) " +
+           "ON DUPLICATE KEY UPDATE total = total + :delta", nativeQuery = true)
+    int addToBucket(@Param("metric") String metric,
+                    @Param("granularity") String granularity,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("delta") BigDecimal delta);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MetricRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") RollupGranularity granularity, @Param("before") LocalDateTime before);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MetricRollup r WHERE r.metric IN :metrics AND r.granularity = :granularity " +
+           "AND r.bucketStart >= :since")
+    int deleteSince(@Param("metrics") Collection<RollupMetric> metrics,
+                    @Param("granularity") RollupGranularity granularity,
+                    @Param("since") LocalDateTime since);
+    
+    // Rebuilds from the source tables; each overwrites the buckets at or after :since,
+    // truncated to the hour or day depending on :granularity.
+    
+    @Modifying
+    @Transactional
+    @Query(value = UPSERT + "SELECT 'SIGNUPS', :granularity, b.bucket_start, b.total FROM (" +
+           "SELECT CASE WHEN :granularity = 'HOUR' THEN TIMESTAMPADD(HOUR, HOUR(created_at), DATE(created_at)) " +
+           "ELSE TIMESTAMP(DATE(created_at)) END AS bucket_start, COUNT(*) AS total " +
+           "FROM users WHERE created_at >= :since GROUP BY bucket_start) b " +
+           "ON DUPLICATE KEY UPDATE total = b.total", nativeQuery = true)
+    int rebuildSignups(@Param("granularity") String granularity, @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @Query(value = UPSERT + "SELECT 'JOBS_POSTED', :granularity, b.bucket_start, b.total FROM (" +
+           "SELECT CASE WHEN :granularity = 'HOUR' THEN TIMESTAMPADD(HOUR, HOUR(created_at), DATE(created_at)) " +
+           "ELSE TIMESTAMP(DATE(created_at)) END AS bucket_start, COUNT(*) AS total " +
+           "FROM jobs WHERE created_at >= :since GROUP BY bucket_start) b " +
+           "ON DUPLICATE KEY UPDATE total = b.total", nativeQuery = true)
+    int rebuildJobsPosted(@Param("granularity") String granularity, @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @Query(value = UPSERT + "SELECT 'JOBS_COMPLETED', :granularity, b.bucket_start, b.total FROM (" +
+           "SELECT CASE WHEN :granularity = 'HOUR' THEN TIMESTAMPADD(HOUR, HOUR(completed_at), DATE(completed_at)) " +
+           "ELSE TIMESTAMP(DATE(completed_at)) END AS bucket_start, COUNT(*) AS total " +
+           "FROM jobs WHERE completed_at >= :since GROUP BY bucket_start) b " +
+           "ON DUPLICATE KEY UPDATE total = b.total", nativeQuery = true)
+    int rebuildJobsCompleted(@Param("granularity") String granularity, @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @Query(value = UPSERT + "SELECT 'APPLICATIONS', :granularity, b.bucket_start, b.total FROM (" +
+           "SELECT CASE WHEN :granularity = 'HOUR' THEN TIMESTAMPADD(HOUR, HOUR(created_at), DATE(created_at)) " +
+           "ELSE TIMESTAMP(DATE(created_at)) END AS bucket_start, COUNT(*) AS total " +
+           "FROM applications WHERE created_at >= :since GROUP BY bucket_start) b " +
+           "ON DUPLICATE KEY UPDATE total = b.total", nativeQuery = true)
+    int rebuildApplications(@Param("granularity") String granularity, @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @Query(value = UPSERT + "SELECT b.metric, :granularity, b.bucket_start, b.total FROM (" +
+           "SELECT CASE type WHEN 'COMMISSION' THEN 'PLATFORM_REVENUE' ELSE 'PAYMENT_VOLUME' END AS metric, " +
+           "CASE WHEN :granularity = 'HOUR' THEN TIMESTAMPADD(HOUR, HOUR(created_at), DATE(created_at)) " +
+           "ELSE TIMESTAMP(DATE(created_at)) END AS bucket_start, SUM(amount) AS total " +
+           "FROM payment_transactions WHERE status = 'COMPLETED' AND type IN ('COMMISSION', 'JOB_PAYMENT') " +
+           "AND created_at >= :since GROUP BY metric, bucket_start) b " +
+           "ON DUPLICATE KEY UPDATE total = b.total", nativeQuery = true)
+    int rebuildPayments(@Param("granularity") String granularity, @Param("since") LocalDateTime since);
+}
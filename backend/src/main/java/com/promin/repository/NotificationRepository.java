@@ -0,0 +1,42 @@
+package com.promin.repository;
+
+import com.promin.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    
+    Slice<Notification> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+    
+    // Replay after a reconnect: everything newer than the last event the client saw
+    List<Notification> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable pageable);
+    
+    boolean existsByIdAndUserId(Long id, Long userId);
+    
+    // Unread notifications newer than a read pointer; walks the (user_id, id) index from the pointer
+    long countByUserIdAndIdGreaterThanAndReadFalse(Long userId, Long id);
+    
+    @Query("SELECT MAX(n.id) FROM Notification n WHERE n.userId = :userId")
+    Long findMaxIdByUserId(@Param("userId") Long userId);
+    
+    // Matches only a notification that is still unread, i.e. not flagged and after the read pointer
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.read = true " +
+           "WHERE n.id = :id AND n.userId = :userId AND n.read = false AND n.id > :readUpto")
+    int markUnreadAsRead(@Param("id") Long id, @Param("userId") Long userId, @Param("readUpto") long readUpto);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.userId = :userId")
+    int deleteOwned(@Param("id") Long id, @Param("userId") Long userId);
+}
@@ -0,0 +1,22 @@
+package com.promin.repository;
+
+import com.promin.entity.Skill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface SkillRepository extends JpaRepository<Skill, Integer> {
+    
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO skills (name, normalized_name) VALUES (:name, :normalizedName)", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("normalizedName") String normalizedName);
+    
+    Optional<Skill> findByNormalizedName(String normalizedName);
+}
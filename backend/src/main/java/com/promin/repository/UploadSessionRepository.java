@@ -0,0 +1,42 @@
+package com.promin.repository;
+
+import com.promin.entity.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findForUpdate(@Param("id") String id);
+    
+    // Re-sending a chunk that was already recorded is a no-op
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO upload_chunks (session_id, chunk_index, size) " +
+           "VALUES (:sessionId, :chunkIndex, :size)", nativeQuery = true)
+    int markChunkReceived(@Param("sessionId") String sessionId,
+                          @Param("chunkIndex") int chunkIndex,
+                          @Param("size") int size);
+    
+    @Query(value = "SELECT chunk_index FROM upload_chunks WHERE session_id = :sessionId ORDER BY chunk_index",
+           nativeQuery = true)
+    List<Integer> findReceivedChunks(@Param("sessionId") String sessionId);
+    
+    @Query(value = "SELECT COUNT(*) FROM upload_chunks WHERE session_id = :sessionId", nativeQuery = true)
+    long countReceivedChunks(@Param("sessionId") String sessionId);
+    
+    @Query("SELECT s.id FROM UploadSession s WHERE s.expiresAt < :now")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now);
+}
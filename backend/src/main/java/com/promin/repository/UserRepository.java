@@ -1,10 +1,12 @@
 package com.promin.repository;
 
+import com.promin.dto.UserView;
 import com.promin.entity.Role;
 import com.promin.entity.User;
 import com.promin.entity.UserStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,10 +19,15 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    String USER_VIEW = "new com.promin.dto.UserView(u.id, u.firstName, u.lastName, u.email, u.role, u.status, " +
+           "u.location, u.avatar, u.emailVerified, u.lastLoginAt, u.createdAt)";
+    
     Optional<User> findByEmail(String email);
     
     boolean existsByEmail(String email);
     
+    boolean existsByAvatar(String avatar);
+    
     List<User> findByRole(Role role);
     
     List<User> findByStatus(UserStatus status);
@@ -29,18 +36,48 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Page<User> findByStatus(UserStatus status, Pageable pageable);
     
-    @Query("SELECT u FROM User u WHERE " +
-           "(:search IS NULL OR :search = '' OR " +
+    String SEARCH_CRITERIA = "(:search IS NULL OR :search = '' OR " +
            "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
            "(:role IS NULL OR u.role = :role) AND " +
-           "(:status IS NULL OR u.status = :status)")
+           "(:status IS NULL OR u.status = :status)";
+    
+    @Query("SELECT u FROM User u WHERE " + SEARCH_CRITERIA)
     Page<User> findBySearchCriteria(@Param("search") String search,
                                    @Param("role") Role role,
                                    @Param("status") UserStatus status,
                                    Pageable pageable);
     
+    @Query(value = "SELECT " + USER_VIEW + " FROM User u WHERE " + SEARCH_CRITERIA,
+           countQuery = "SELECT COUNT(u) FROM User u WHERE " + SEARCH_CRITERIA)
+    Page<UserView> findViewsBySearchCriteria(@Param("search") String search,
+                                             @Param("role") Role role,
+                                             @Param("status") UserStatus status,
+                                             Pageable pageable);
+    
+    @Query("SELECT " + USER_VIEW + " FROM User u ORDER BY u.createdAt DESC, u.id DESC")
+    Slice<UserView> findFirstByKeyset(Pageable pageable);
+    
+    @Query("SELECT " + USER_VIEW + " FROM User u " +
+           "WHERE u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    Slice<UserView> findByKeysetAfter(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+    
+    @Query("SELECT u.id FROM User u WHERE u.status <> :status")
+    List<Long> findIdsByStatusNot(@Param("status") UserStatus status);
+    
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.status = :status AND u.tokenVersion > 0")
+    List<Object[]> findTokenVersionsByStatus(@Param("status") UserStatus status);
+    
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupedByRole();
+    
+    @Query("SELECT u.status, COUNT(u) FROM User u GROUP BY u.status")
+    List<Object[]> countGroupedByStatus();
+    
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     long countByRole(@Param("role") Role role);
     
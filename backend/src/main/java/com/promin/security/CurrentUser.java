@@ -0,0 +1,42 @@
+package com.promin.security;
+
+import com.promin.entity.User;
+import com.promin.repository.UserRepository;
+import com.promin.service.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the caller of the current request from the principal the
+ * {@link JwtAuthenticationFilter} already placed in the security context,
+ * so controllers don't repeat the user lookup.
+ */
+@Component
+public class CurrentUser {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public AuthenticatedUser principal(Authentication auth) {
+        if (auth.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
+        }
+        return (AuthenticatedUser) userDetailsService.loadUserByUsername(auth.getName());
+    }
+
+    public Long id(Authentication auth) {
+        return principal(auth).getId();
+    }
+
+    /**
+     * Returns an uninitialized proxy for the caller, usable as a query parameter
+     * or association target without selecting the row.
+     */
+    public User reference(Authentication auth) {
+        return userRepository.getReferenceById(id(auth));
+    }
+}
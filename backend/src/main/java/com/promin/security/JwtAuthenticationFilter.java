@@ -1,12 +1,16 @@
 package com.promin.security;
 
 import com.promin.config.JwtUtil;
+import com.promin.config.VerifiedToken;
+import com.promin.entity.Role;
+import com.promin.entity.UserStatus;
 import com.promin.service.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,45 +19,85 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Opened by EventSource and WebSocket, neither of which can set headers
+    private static final List<String> QUERY_TOKEN_PATHS = List.of("/notifications/stream", "/ws/messages");
+
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        
+
         final String authorizationHeader = request.getHeader("Authorization");
-        
-        String username = null;
+
         String jwt = null;
-        
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
+        } else if (acceptsQueryToken(request.getRequestURI())) {
+            jwt = request.getParameter("token");
+        }
+
+        VerifiedToken token = null;
+
+        if (jwt != null && !jwt.isBlank()) {
             try {
-                username = jwtUtil.extractUsername(jwt);
+                token = jwtUtil.parse(jwt);
+                request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, token);
             } catch (Exception e) {
                 logger.error("JWT token is invalid: " + e.getMessage());
             }
         }
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = 
+
+        if (token != null && token.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = null;
+            if (stateless && token.getUserId() != null) {
+                userDetails = principalFromToken(token);
+            } else {
+                UserDetails loaded = this.userDetailsService.loadUserByUsername(token.getSubject());
+                if (loaded.isEnabled() && jwtUtil.validateToken(token, loaded)) {
+                    userDetails = loaded;
+                }
+            }
+
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
-        
+
         filterChain.doFilter(request, response);
     }
+
+    private static boolean acceptsQueryToken(String uri) {
+        return QUERY_TOKEN_PATHS.stream().anyMatch(uri::endsWith);
+    }
+
+    /**
+     * Builds the principal purely from the signed claims; the revocation list stands in
+     * for the database check of the user's status.
+     */
+    private AuthenticatedUser principalFromToken(VerifiedToken token) {
+        if (tokenRevocationList.isRevoked(token.getUserId(), token.getTokenVersion())) {
+            return null;
+        }
+        Role role = Role.valueOf(token.getRole());
+        return new AuthenticatedUser(token.getUserId(), token.getSubject(), null, role, UserStatus.ACTIVE);
+    }
 }
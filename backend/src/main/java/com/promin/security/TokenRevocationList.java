@@ -0,0 +1,91 @@
+package com.promin.security;
+
+import com.promin.entity.User;
+import com.promin.entity.UserStatus;
+import com.promin.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory denylist consulted by stateless token authentication in place of a
+ * user lookup. Holds one entry per user whose access changed: either the minimum
+ * token version still accepted, or a block for suspended and deleted accounts.
+ * An entry is dropped once every token issued before it has expired, since later
+ * tokens carry the new version and inactive users cannot sign in.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int BLOCKED = Integer.MAX_VALUE;
+
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
+    @Value("${jwt.expiration}")
+    private long expiration;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Revocation> revocations = new ConcurrentHashMap<>();
+
+    private record Revocation(int minimumVersion, long revokedAt) {}
+
+    /**
+     * Rebuilds the list after a restart: inactive users are blocked, and active users whose token
+     * version was ever bumped by a role or status change only accept tokens of that version.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        if (!stateless) {
+            return;
+        }
+        for (Object[] row : userRepository.findTokenVersionsByStatus(UserStatus.ACTIVE)) {
+            put((Long) row[0], (Integer) row[1]);
+        }
+        for (Long userId : userRepository.findIdsByStatusNot(UserStatus.ACTIVE)) {
+            put(userId, BLOCKED);
+        }
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Revocation revocation = revocations.get(userId);
+        return revocation != null && tokenVersion < revocation.minimumVersion();
+    }
+
+    /**
+     * Records the user's current access state: inactive users are blocked outright,
+     * active users only accept tokens carrying their current token version.
+     */
+    public void revoke(User user) {
+        if (user.isActive()) {
+            put(user.getId(), user.getTokenVersion());
+        } else {
+            put(user.getId(), BLOCKED);
+        }
+    }
+
+    public void block(Long userId) {
+        put(userId, BLOCKED);
+    }
+
+    /**
+     * Drops entries older than the token lifetime, including the blocks of deleted users.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation-prune-interval:PT1H}")
+    public void prune() {
+        long cutoff = System.currentTimeMillis() - expiration;
+        revocations.values().removeIf(revocation -> revocation.revokedAt() < cutoff);
+    }
+
+    private void put(Long userId, int minimumVersion) {
+        revocations.put(userId, new Revocation(minimumVersion, System.currentTimeMillis()));
+    }
+}
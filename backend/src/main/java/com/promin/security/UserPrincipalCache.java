@@ -0,0 +1,48 @@
+package com.promin.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicted cache of authenticated principals keyed by email.
+ * Entries must be evicted whenever a user's role, status or password changes.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Value("${auth.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${auth.principal-cache.ttl:5m}")
+    private Duration ttl;
+
+    private Cache<String, AuthenticatedUser> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public AuthenticatedUser get(String email, Function<String, AuthenticatedUser> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,337 @@
+package com.promin.service;
+
+import com.promin.entity.MetricRollup;
+import com.promin.entity.RollupGranularity;
+import com.promin.entity.RollupMetric;
+import com.promin.repository.MetricRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hourly and daily rollups of platform activity, stored in {@code metric_rollups}.
+ * Write paths call {@link #record}; deltas are buffered in memory and added to their buckets
+ * on a fixed delay. Payments have no write path in the application, so their buckets are
+ * rebuilt from {@code payment_transactions} for a recent window instead.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final DateTimeFormatter HOUR_LABEL = DateTimeFormatter.ofPattern("HH:00");
+    private static final DateTimeFormatter DAY_LABEL = DateTimeFormatter.ofPattern("MMM d", Locale.ENGLISH);
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+
+    @Value("${analytics.rollup.hourly-retention:P7D}")
+    private Duration hourlyRetention;
+
+    @Value("${analytics.rollup.payment-window:P2D}")
+    private Duration paymentWindow;
+
+    @Autowired
+    private MetricRollupRepository metricRollupRepository;
+
+    private static final Set<RollupMetric> PAYMENT_METRICS =
+            EnumSet.of(RollupMetric.PLATFORM_REVENUE, RollupMetric.PAYMENT_VOLUME);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<BucketKey, BigDecimal> pending = new ConcurrentHashMap<>();
+    // While set, deltas stay pending; each rebuild step discards the ones its query will count
+    private volatile boolean backfilling;
+
+    private record BucketKey(RollupMetric metric, RollupGranularity granularity, LocalDateTime bucketStart) {}
+
+    private enum Period {
+        DAY("24h", RollupGranularity.HOUR, Duration.ofHours(24), false),
+        WEEK("7d", RollupGranularity.DAY, Duration.ofDays(7), false),
+        MONTH("30d", RollupGranularity.DAY, Duration.ofDays(30), false),
+        QUARTER("90d", RollupGranularity.DAY, Duration.ofDays(90), false),
+        YEAR("1y", RollupGranularity.DAY, Duration.ofDays(365), true);
+
+        final String code;
+        final RollupGranularity granularity;
+        final Duration length;
+        final boolean monthly;
+
+        Period(String code, RollupGranularity granularity, Duration length, boolean monthly) {
+            this.code = code;
+            this.granularity = granularity;
+            this.length = length;
+            this.monthly = monthly;
+        }
+
+        static Period of(String code) {
+            for (Period period : values()) {
+                if (period.code.equals(code)) {
+                    return period;
+                }
+            }
+            return MONTH;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(RollupMetric metric) {
+        record(metric, LocalDateTime.now(), BigDecimal.ONE);
+    }
+
+    public void record(RollupMetric metric, LocalDateTime at, BigDecimal amount) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            pending.merge(new BucketKey(metric, granularity, truncate(at, granularity)), amount, BigDecimal::add);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollup.flush-interval:PT30S}")
+    @PreDestroy
+    public void flush() {
+        if (backfilling) {
+            return;
+        }
+        for (BucketKey key : pending.keySet()) {
+            BigDecimal delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                metricRollupRepository.addToBucket(key.metric().name(), key.granularity().name(),
+                        key.bucketStart(), delta);
+            } catch (RuntimeException e) {
+                // Keep the delta for the next flush rather than losing it
+                pending.merge(key, delta, BigDecimal::add);
+                log.warn("Failed to flush metric rollups, will retry", e);
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollup.payment-refresh-interval:PT5M}",
+            initialDelayString = "${analytics.rollup.payment-refresh-interval:PT5M}")
+    public void refreshPayments() {
+        LocalDateTime since = LocalDateTime.now().minus(paymentWindow);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            rebuildPayments(granularity, truncate(since, granularity));
+        }
+    }
+
+    /**
+     * Replaces the payment buckets of the window, so one whose payments were all refunded or
+     * deleted goes back to zero rather than keeping its old total.
+     */
+    private void rebuildPayments(RollupGranularity granularity, LocalDateTime from) {
+        transactionTemplate.executeWithoutResult(status -> {
+            metricRollupRepository.deleteSince(PAYMENT_METRICS, granularity, from);
+            metricRollupRepository.rebuildPayments(granularity.name(), from);
+        });
+    }
+
+    @Scheduled(cron = "${analytics.rollup.prune-cron:0 5 * * * *}")
+    public void pruneHourly() {
+        metricRollupRepository.deleteOlderThan(RollupGranularity.HOUR, LocalDateTime.now().minus(hourlyRetention));
+    }
+
+    /**
+     * Seeds the rollups from the source tables the first time the application runs against
+     * a database without them. Later runs rely on the incremental updates. Flushes wait for the
+     * backfill: a delta recorded before a rebuild query runs is already in the rows it counts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (metricRollupRepository.count() > 0) {
+            return;
+        }
+        backfilling = true;
+        Thread backfill = new Thread(() -> {
+            try {
+                rebuild(RollupGranularity.DAY, EPOCH);
+                rebuild(RollupGranularity.HOUR, LocalDateTime.now().minus(hourlyRetention));
+                log.info("Metric rollups backfilled");
+            } finally {
+                backfilling = false;
+            }
+        }, "metric-rollup-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    private void rebuild(RollupGranularity granularity, LocalDateTime since) {
+        String name = granularity.name();
+        LocalDateTime from = truncate(since, granularity);
+        discardPending(RollupMetric.SIGNUPS, granularity);
+        metricRollupRepository.rebuildSignups(name, from);
+        discardPending(RollupMetric.JOBS_POSTED, granularity);
+        metricRollupRepository.rebuildJobsPosted(name, from);
+        discardPending(RollupMetric.JOBS_COMPLETED, granularity);
+        metricRollupRepository.rebuildJobsCompleted(name, from);
+        discardPending(RollupMetric.APPLICATIONS, granularity);
+        metricRollupRepository.rebuildApplications(name, from);
+        rebuildPayments(granularity, from);
+    }
+
+    private void discardPending(RollupMetric metric, RollupGranularity granularity) {
+        pending.keySet().removeIf(key -> key.metric() == metric && key.granularity() == granularity);
+    }
+
+    /**
+     * Time series and growth for the requested period ({@code 24h}, {@code 7d}, {@code 30d},
+     * {@code 90d} or {@code 1y}), read from one range query over the rollups plus the deltas
+     * not yet flushed. Growth rates compare the period with the one before it.
+     */
+    public Map<String, Object> analytics(String periodCode) {
+        Period period = Period.of(periodCode);
+        RollupGranularity granularity = period.granularity;
+        LocalDateTime end = truncate(LocalDateTime.now(), granularity).plus(1, unit(granularity));
+        LocalDateTime start = end.minus(period.length);
+        Map<LocalDateTime, Map<RollupMetric, BigDecimal>> buckets =
+                buckets(granularity, start.minus(period.length), end);
+
+        Map<RollupMetric, BigDecimal> current = new EnumMap<>(RollupMetric.class);
+        Map<RollupMetric, BigDecimal> previous = new EnumMap<>(RollupMetric.class);
+        split(buckets, start, current, previous);
+
+        Map<String, Object> res = new HashMap<>();
+        res.put("period", period.code);
+        res.put("series", series(buckets, start, end, period));
+        res.put("periodTotals", named(current));
+        res.put("growthRate", growth(current, previous, RollupMetric.SIGNUPS));
+        res.put("jobGrowthRate", growth(current, previous, RollupMetric.JOBS_POSTED));
+        res.put("revenueGrowthRate", growth(current, previous, RollupMetric.PLATFORM_REVENUE));
+        return res;
+    }
+
+    /**
+     * Growth of one metric over the period against the period before it, in percent, as reported
+     * by {@link #analytics(String)}.
+     */
+    public BigDecimal growthRate(RollupMetric metric, String periodCode) {
+        Period period = Period.of(periodCode);
+        LocalDateTime end = truncate(LocalDateTime.now(), period.granularity).plus(1, unit(period.granularity));
+        LocalDateTime start = end.minus(period.length);
+        Map<RollupMetric, BigDecimal> current = new EnumMap<>(RollupMetric.class);
+        Map<RollupMetric, BigDecimal> previous = new EnumMap<>(RollupMetric.class);
+        split(buckets(period.granularity, start.minus(period.length), end), start, current, previous);
+        return growth(current, previous, metric);
+    }
+
+    // Rollups in [from, end) plus the deltas not yet flushed
+    private Map<LocalDateTime, Map<RollupMetric, BigDecimal>> buckets(RollupGranularity granularity,
+                                                                      LocalDateTime from, LocalDateTime end) {
+        Map<LocalDateTime, Map<RollupMetric, BigDecimal>> buckets = new TreeMap<>();
+        for (MetricRollup rollup : metricRollupRepository.findRange(granularity, from, end)) {
+            add(buckets, rollup.getBucketStart(), rollup.getMetric(), rollup.getTotal());
+        }
+        pending.forEach((key, delta) -> {
+            if (key.granularity() == granularity && !key.bucketStart().isBefore(from)) {
+                add(buckets, key.bucketStart(), key.metric(), delta);
+            }
+        });
+        return buckets;
+    }
+
+    private static void split(Map<LocalDateTime, Map<RollupMetric, BigDecimal>> buckets, LocalDateTime start,
+                              Map<RollupMetric, BigDecimal> current, Map<RollupMetric, BigDecimal> previous) {
+        buckets.forEach((bucketStart, totals) ->
+                totals.forEach((metric, total) ->
+                        (bucketStart.isBefore(start) ? previous : current).merge(metric, total, BigDecimal::add)));
+    }
+
+    private List<Map<String, Object>> series(Map<LocalDateTime, Map<RollupMetric, BigDecimal>> buckets,
+                                             LocalDateTime start, LocalDateTime end, Period period) {
+        // One point per bucket, zero-filled; the yearly view folds days into months
+        Map<LocalDateTime, Map<RollupMetric, BigDecimal>> points = new LinkedHashMap<>();
+        ChronoUnit step = period.monthly ? ChronoUnit.MONTHS : unit(period.granularity);
+        LocalDateTime first = period.monthly ? start.withDayOfMonth(1) : start;
+        for (LocalDateTime t = first; t.isBefore(end); t = t.plus(1, step)) {
+            points.put(t, new EnumMap<>(RollupMetric.class));
+        }
+        buckets.forEach((bucketStart, totals) -> {
+            if (bucketStart.isBefore(start)) {
+                return;
+            }
+            LocalDateTime point = period.monthly ? bucketStart.withDayOfMonth(1) : bucketStart;
+            Map<RollupMetric, BigDecimal> target = points.get(point);
+            if (target != null) {
+                totals.forEach((metric, total) -> target.merge(metric, total, BigDecimal::add));
+            }
+        });
+
+        DateTimeFormatter labels = period.monthly ? MONTH_LABEL
+                : period.granularity == RollupGranularity.HOUR ? HOUR_LABEL : DAY_LABEL;
+        List<Map<String, Object>> series = new ArrayList<>(points.size());
+        points.forEach((point, totals) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("bucket", point);
+            entry.put("label", labels.format(point));
+            entry.putAll(named(totals));
+            series.add(entry);
+        });
+        return series;
+    }
+
+    private static void add(Map<LocalDateTime, Map<RollupMetric, BigDecimal>> buckets,
+                            LocalDateTime bucketStart, RollupMetric metric, BigDecimal total) {
+        buckets.computeIfAbsent(bucketStart, b -> new EnumMap<>(RollupMetric.class))
+                .merge(metric, total, BigDecimal::add);
+    }
+
+    private static Map<String, Object> named(Map<RollupMetric, BigDecimal> totals) {
+        Map<String, Object> named = new LinkedHashMap<>();
+        for (RollupMetric metric : RollupMetric.values()) {
+            named.put(camelCase(metric), totals.getOrDefault(metric, BigDecimal.ZERO));
+        }
+        return named;
+    }
+
+    private static BigDecimal growth(Map<RollupMetric, BigDecimal> current, Map<RollupMetric, BigDecimal> previous,
+                                     RollupMetric metric) {
+        BigDecimal now = current.getOrDefault(metric, BigDecimal.ZERO);
+        BigDecimal before = previous.getOrDefault(metric, BigDecimal.ZERO);
+        if (before.signum() == 0) {
+            return now.signum() == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(100);
+        }
+        return now.subtract(before).multiply(BigDecimal.valueOf(100)).divide(before, 1, RoundingMode.HALF_UP);
+    }
+
+    private static String camelCase(RollupMetric metric) {
+        StringBuilder name = new StringBuilder();
+        for (String part : metric.name().toLowerCase(Locale.ROOT).split("_")) {
+            name.append(name.length() == 0 ? part : Character.toUpperCase(part.charAt(0)) + part.substring(1));
+        }
+        return name.toString();
+    }
+
+    private static ChronoUnit unit(RollupGranularity granularity) {
+        return granularity == RollupGranularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time, RollupGranularity granularity) {
+        return time.truncatedTo(unit(granularity));
+    }
+}
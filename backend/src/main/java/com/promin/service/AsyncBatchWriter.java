@@ -0,0 +1,219 @@
+package com.promin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind buffer: producers enqueue on a bounded lock-free queue and a single background
+ * thread hands the items to a sink in batches, either when a full batch is available or after
+ * the flush interval. {@link #close()} drains everything still queued.
+ * <p>
+ * By default a batch the sink rejects is logged and counted as dropped. With a retry backoff the
+ * writer instead retries it, backing off exponentially up to that limit, until it succeeds; the
+ * sink must then be idempotent, since a failed batch may have been partly written.
+ */
+public class AsyncBatchWriter<T> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncBatchWriter.class);
+
+    private static final int MAX_CLOSING_ATTEMPTS = 3;
+
+    public enum OverflowPolicy {
+        /** Discard the item being submitted. */
+        DROP_NEWEST,
+        /** Discard the oldest queued item to make room. */
+        DROP_OLDEST,
+        /** Write the item synchronously on the submitting thread. */
+        CALLER_WRITES
+    }
+
+    private final String name;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final Consumer<List<T>> sink;
+    private final long maxRetryBackoffNanos;
+
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter dropped;
+    private final Counter retries;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncBatchWriter(String name, int capacity, int batchSize, Duration flushInterval,
+                            OverflowPolicy overflowPolicy, Consumer<List<T>> sink, MeterRegistry meterRegistry) {
+        this(name, capacity, batchSize, flushInterval, overflowPolicy, sink, meterRegistry, null);
+    }
+
+    /**
+     * @param maxRetryBackoff when non-null, failed batches are retried instead of dropped
+     */
+    public AsyncBatchWriter(String name, int capacity, int batchSize, Duration flushInterval,
+                            OverflowPolicy overflowPolicy, Consumer<List<T>> sink, MeterRegistry meterRegistry,
+                            Duration maxRetryBackoff) {
+        this.name = name;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.sink = sink;
+        this.maxRetryBackoffNanos = maxRetryBackoff != null ? maxRetryBackoff.toNanos() : -1;
+        this.dropped = Counter.builder("batch.writer.dropped").tag("writer", name).register(meterRegistry);
+        this.retries = Counter.builder("batch.writer.retries").tag("writer", name).register(meterRegistry);
+        Gauge.builder("batch.writer.queue.depth", size, AtomicInteger::get).tag("writer", name)
+                .register(meterRegistry);
+        this.writer = new Thread(this::run, name + "-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Enqueues an item without blocking, applying the overflow policy when the queue is full.
+     *
+     * @return false if the item was dropped
+     */
+    public boolean submit(T item) {
+        if (!running) {
+            write(List.of(item));
+            return true;
+        }
+        while (true) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    queue.offer(item);
+                    if (current + 1 >= batchSize) {
+                        LockSupport.unpark(writer);
+                    }
+                    return true;
+                }
+                continue;
+            }
+            switch (overflowPolicy) {
+                case DROP_NEWEST -> {
+                    dropped.increment();
+                    return false;
+                }
+                case DROP_OLDEST -> {
+                    if (queue.poll() != null) {
+                        size.decrementAndGet();
+                        dropped.increment();
+                    }
+                }
+                case CALLER_WRITES -> {
+                    if (!tryWrite(List.of(item)) && retrying()) {
+                        // Over capacity rather than lost; the writer retries it with the rest
+                        size.incrementAndGet();
+                        queue.offer(item);
+                    }
+                    return true;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void run() {
+        while (running) {
+            if (size.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            drain(batchSize);
+        }
+    }
+
+    /**
+     * Writes up to one batch, or everything queued when {@code limit} is {@link Integer#MAX_VALUE}.
+     */
+    private void drain(int limit) {
+        List<T> batch = new ArrayList<>(Math.min(limit, batchSize));
+        T item;
+        int taken = 0;
+        while (taken < limit && (item = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(item);
+            taken++;
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<T> batch) {
+        if (tryWrite(batch) || !retrying()) {
+            return;
+        }
+        long backoff = Math.min(Math.max(flushIntervalNanos, TimeUnit.MILLISECONDS.toNanos(100)), maxRetryBackoffNanos);
+        int closingAttempts = 0;
+        while (true) {
+            retries.increment();
+            LockSupport.parkNanos(this, backoff);
+            backoff = Math.min(backoff * 2, maxRetryBackoffNanos);
+            if (tryWrite(batch)) {
+                return;
+            }
+            // Shutdown can't wait out a long outage
+            if (!running && ++closingAttempts >= MAX_CLOSING_ATTEMPTS) {
+                dropped.increment(batch.size());
+                log.error("{}: giving up on batch of {} at shutdown", name, batch.size());
+                return;
+            }
+        }
+    }
+
+    private boolean tryWrite(List<T> batch) {
+        try {
+            sink.accept(batch);
+            return true;
+        } catch (RuntimeException e) {
+            if (retrying()) {
+                log.warn("{}: failed to write batch of {}, will retry", name, batch.size(), e);
+            } else {
+                dropped.increment(batch.size());
+                log.error("{}: failed to write batch of {}", name, batch.size(), e);
+            }
+            return false;
+        }
+    }
+
+    private boolean retrying() {
+        return maxRetryBackoffNanos >= 0;
+    }
+
+    /**
+     * Stops the background thread and writes everything still queued on the calling thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain(Integer.MAX_VALUE);
+    }
+}
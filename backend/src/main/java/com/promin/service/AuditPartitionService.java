@@ -0,0 +1,118 @@
+package com.promin.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Maintains the monthly range partitions of {@code audit_logs}: partitions for the coming
+ * months are split off the catch-all {@code p_future} partition ahead of time, and months older
+ * than the retention window are dropped whole instead of being deleted row by row.
+ */
+@Service
+public class AuditPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPartitionService.class);
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    @Value("${audit.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${audit.partitions.retention-months:12}")
+    private int retentionMonths;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${audit.partitions.maintenance-cron:0 15 3 * * *}")
+    public synchronized void maintain() {
+        try {
+            TreeSet<YearMonth> months = monthlyPartitions();
+            if (months == null) {
+                log.warn("audit_logs is not partitioned, skipping partition maintenance");
+                return;
+            }
+            createAhead(months, YearMonth.now());
+            dropExpired(months, YearMonth.now().minusMonths(retentionMonths));
+        } catch (RuntimeException e) {
+            log.error("Audit log partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Months with their own partition, or null when the table has no {@code p_future} partition.
+     */
+    private TreeSet<YearMonth> monthlyPartitions() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs' AND PARTITION_NAME IS NOT NULL",
+                String.class);
+        if (!names.contains(FUTURE_PARTITION)) {
+            return null;
+        }
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (String name : names) {
+            if (!name.equals(FUTURE_PARTITION)) {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            }
+        }
+        return months;
+    }
+
+    private void createAhead(TreeSet<YearMonth> months, YearMonth current) {
+        // Partitions are only ever split off p_future, so new months must come after the last one
+        YearMonth next = months.isEmpty() ? current : months.last().plusMonths(1);
+        YearMonth last = current.plusMonths(monthsAhead);
+        if (next.isAfter(last)) {
+            return;
+        }
+        StringBuilder partitions = new StringBuilder();
+        for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+            partitions.append("PARTITION ").append(name(month))
+                    .append(" VALUES LESS THAN ('").append(upperBound(month)).append("'), ");
+            months.add(month);
+        }
+        partitions.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE audit_logs REORGANIZE PARTITION " + FUTURE_PARTITION +
+                " INTO (" + partitions + ")");
+        log.info("Created audit_logs partitions {} to {}", name(next), name(last));
+    }
+
+    private void dropExpired(TreeSet<YearMonth> months, YearMonth oldestKept) {
+        List<String> expired = months.headSet(oldestKept, false).stream()
+                .map(AuditPartitionService::name)
+                .toList();
+        if (expired.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE audit_logs DROP PARTITION " + String.join(", ", expired));
+        log.info("Dropped expired audit_logs partitions {}", expired);
+    }
+
+    private static String name(YearMonth month) {
+        return PARTITION_NAME.format(month.atDay(1));
+    }
+
+    private static LocalDate upperBound(YearMonth month) {
+        return month.plusMonths(1).atDay(1);
+    }
+}
@@ -0,0 +1,131 @@
+package com.promin.service;
+
+import com.promin.entity.AuditAction;
+import com.promin.security.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records audit entries without touching the database on the request thread. Entries are queued
+ * on an {@link AsyncBatchWriter} and inserted into {@code audit_logs} in JDBC batches.
+ */
+@Service
+public class AuditService {
+
+    private static final String INSERT = "INSERT INTO audit_logs " +
+            "(action, details, resource_id, resource_type, ip_address, user_agent, user_id, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_USER_AGENT_LENGTH = 512;
+
+    @Value("${audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.flush-interval:PT1S}")
+    private Duration flushInterval;
+
+    @Value("${audit.overflow-policy:DROP_NEWEST}")
+    private AsyncBatchWriter.OverflowPolicy overflowPolicy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AsyncBatchWriter<AuditEvent> writer;
+
+    /**
+     * Where a request came from, captured on the request thread so it can be attached to
+     * entries recorded later from another thread.
+     */
+    public record Origin(Long userId, String ipAddress, String userAgent) {}
+
+    private record AuditEvent(AuditAction action, String details, Long resourceId, String resourceType,
+                              Origin origin, LocalDateTime timestamp) {}
+
+    @PostConstruct
+    void init() {
+        writer = new AsyncBatchWriter<>("audit", queueCapacity, batchSize, flushInterval, overflowPolicy,
+                this::insert, meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.close();
+    }
+
+    /**
+     * Captures the current user and client address; returns an empty origin outside a request.
+     */
+    public Origin origin() {
+        Long userId = null;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            userId = user.getId();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return new Origin(userId, request.getRemoteAddr(), truncate(request.getHeader("User-Agent")));
+        }
+        return new Origin(userId, null, null);
+    }
+
+    public void record(AuditAction action, String resourceType, Long resourceId, String details) {
+        record(origin(), action, resourceType, resourceId, details);
+    }
+
+    public void record(Origin origin, AuditAction action, String resourceType, Long resourceId, String details) {
+        writer.submit(new AuditEvent(action, details, resourceId, resourceType, origin, LocalDateTime.now()));
+    }
+
+    private void insert(List<AuditEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.action().name());
+            ps.setString(2, event.details());
+            setLong(ps, 3, event.resourceId());
+            ps.setString(4, event.resourceType());
+            ps.setString(5, event.origin().ipAddress());
+            ps.setString(6, event.origin().userAgent());
+            setLong(ps, 7, event.origin().userId());
+            ps.setTimestamp(8, Timestamp.valueOf(event.timestamp()));
+        });
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static String truncate(String userAgent) {
+        return userAgent != null && userAgent.length() > MAX_USER_AGENT_LENGTH
+                ? userAgent.substring(0, MAX_USER_AGENT_LENGTH)
+                : userAgent;
+    }
+}
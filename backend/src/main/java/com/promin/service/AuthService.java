@@ -1,20 +1,23 @@
 package com.promin.service;
 
 import com.promin.config.JwtUtil;
+import com.promin.config.VerifiedToken;
+import com.promin.entity.AuditAction;
 import com.promin.entity.Role;
+import com.promin.entity.RollupMetric;
 import com.promin.entity.User;
 import com.promin.entity.UserStatus;
 import com.promin.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
@@ -23,7 +26,7 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private AuthenticationManager authenticationManager;
@@ -31,7 +34,16 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
-    public Map<String, Object> register(Map<String, Object> payload) {
+    @Autowired
+    private PlatformCounters platformCounters;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AuditService auditService;
+
+    public CompletableFuture<Map<String, Object>> register(Map<String, Object> payload) {
         String firstName = (String) payload.get("firstName");
         String lastName = (String) payload.get("lastName");
         String email = (String) payload.get("email");
@@ -41,41 +53,61 @@ public class AuthService {
         if (userRepository.existsByEmail(email)) {
             throw new IllegalArgumentException("Email already in use");
         }
-        User user = new User(firstName, lastName, email, passwordEncoder.encode(password), Role.valueOf(role));
-        user.setStatus(UserStatus.ACTIVE);
-        user.setEmailVerified(true);
-        userRepository.save(user);
-
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
-        Map<String, Object> result = new HashMap<>();
-        result.put("user", sanitize(user));
-        result.put("token", token);
-        return result;
+        Role userRole = Role.valueOf(role);
+        AuditService.Origin origin = auditService.origin();
+        return passwordHashingService.encodeAsync(password).thenApply(hash -> {
+            User user = new User(firstName, lastName, email, hash, userRole);
+            user.setStatus(UserStatus.ACTIVE);
+            user.setEmailVerified(true);
+            userRepository.save(user);
+            platformCounters.userCreated(user.getRole(), user.getStatus());
+            analyticsService.record(RollupMetric.SIGNUPS);
+            auditService.record(new AuditService.Origin(user.getId(), origin.ipAddress(), origin.userAgent()),
+                    AuditAction.REGISTER, "USER", user.getId(), null);
+
+            String token = jwtUtil.generateToken(user);
+            Map<String, Object> result = new HashMap<>();
+            result.put("user", sanitize(user));
+            result.put("token", token);
+            return result;
+        });
     }
 
-    public Map<String, Object> login(String email, String password) {
-        try {
-            Authentication auth = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(email, password)
-            );
-        } catch (BadCredentialsException ex) {
-            throw new IllegalArgumentException("Invalid credentials");
-        }
-
-        User user = userRepository.findByEmail(email).orElseThrow();
-        String token = jwtUtil.generateToken(email, user.getRole().name());
-        Map<String, Object> result = new HashMap<>();
-        result.put("user", sanitize(user));
-        result.put("token", token);
-        return result;
+    public CompletableFuture<Map<String, Object>> login(String email, String password) {
+        // The BCrypt comparison inside authenticate() runs on the hashing pool, not the request thread
+        AuditService.Origin origin = auditService.origin();
+        return passwordHashingService.submit(() -> {
+            try {
+                authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(email, password)
+                );
+            } catch (BadCredentialsException ex) {
+                throw new IllegalArgumentException("Invalid credentials");
+            }
+
+            User user = userRepository.findByEmail(email).orElseThrow();
+            auditService.record(new AuditService.Origin(user.getId(), origin.ipAddress(), origin.userAgent()),
+                    AuditAction.LOGIN, "USER", user.getId(), null);
+            String token = jwtUtil.generateToken(user);
+            Map<String, Object> result = new HashMap<>();
+            result.put("user", sanitize(user));
+            result.put("token", token);
+            return result;
+        });
     }
 
     public Map<String, Object> verify(String token) {
-        if (!jwtUtil.validateToken(token)) {
+        VerifiedToken verified;
+        try {
+            verified = jwtUtil.parse(token);
+        } catch (JwtException | IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid token");
         }
-        String email = jwtUtil.extractUsername(token);
-        User user = userRepository.findByEmail(email).orElseThrow();
+        return verify(verified);
+    }
+
+    public Map<String, Object> verify(VerifiedToken token) {
+        User user = userRepository.findByEmail(token.getSubject()).orElseThrow();
         Map<String, Object> result = new HashMap<>();
         result.put("user", sanitize(user));
         return result;
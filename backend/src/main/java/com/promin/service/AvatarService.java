@@ -0,0 +1,321 @@
+package com.promin.service;
+
+import com.promin.entity.FileResource;
+import com.promin.entity.User;
+import com.promin.repository.FileResourceRepository;
+import com.promin.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Avatar uploads. The original is kept in the file store like any other upload; square JPEG
+ * derivatives in the configured sizes are rendered once on a bounded background pool and
+ * written next to it, then served by hash so they can be cached indefinitely.
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvatarService.class);
+
+    private static final String URL_PREFIX = "/public/avatars/";
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    @Value("${avatar.sizes:64,128,256}")
+    private int[] sizes;
+
+    @Value("${avatar.max-dimension:8000}")
+    private int maxDimension;
+
+    @Value("${avatar.threads:2}")
+    private int threads;
+
+    @Value("${avatar.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private FileResourceRepository fileResourceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ThreadPoolExecutor executor;
+
+    // Hashes queued or being rendered, so repeated requests for a missing size don't pile up
+    private final Set<String> rendering = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        sizes = Arrays.stream(sizes).sorted().distinct().toArray();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-render-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Stores a new avatar for the user, releases the previous one and schedules the derivatives.
+     * Not one transaction: the upload is copied without holding a connection, and only the switch
+     * to the new avatar is transactional.
+     *
+     * @return the avatar path, relative to the context path
+     */
+    public String replaceAvatar(Long userId, MultipartFile upload) throws IOException {
+        if (upload.getContentType() == null || !upload.getContentType().startsWith("image/")) {
+            throw new IllegalArgumentException("Avatar must be an image");
+        }
+        try (InputStream in = upload.getInputStream(); ImageInputStream image = ImageIO.createImageInputStream(in)) {
+            // Only reads the header; the full decode happens on the render pool
+            Iterator<ImageReader> readers = image != null ? ImageIO.getImageReaders(image) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                if (reader.getWidth(0) > maxDimension || reader.getHeight(0) > maxDimension) {
+                    throw new IllegalArgumentException("Avatar must be at most " + maxDimension + "px on each side");
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unsupported image format");
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
+        FileResource stored;
+        try (InputStream in = upload.getInputStream()) {
+            stored = fileStorageService.store(in, upload.getOriginalFilename(), upload.getContentType(), user, null);
+        }
+        String url = URL_PREFIX + stored.getFileName();
+        transactionTemplate.executeWithoutResult(status -> {
+            hashOf(user.getAvatar()).ifPresent(previous -> {
+                if (!previous.equals(stored.getFileName())) {
+                    fileResourceRepository.findFirstByUserIdAndFileNameAndJobIsNull(userId, previous)
+                            .ifPresent(fileStorageService::delete);
+                }
+            });
+            user.setAvatar(url);
+            userRepository.save(user);
+        });
+
+        scheduleRender(stored.getFileName());
+        return url;
+    }
+
+    /**
+     * The stored image to serve for {@code size}: the smallest derivative at least that large,
+     * or the largest one when no size is given. Empty if the hash is unknown; the original is
+     * returned while derivatives are still being rendered.
+     */
+    public Optional<Rendition> find(String hash, Integer size) {
+        if (!HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        int target = sizes[sizes.length - 1];
+        if (size != null) {
+            for (int candidate : sizes) {
+                if (candidate >= size) {
+                    target = candidate;
+                    break;
+                }
+            }
+        }
+        Path derivative = derivative(hash, target);
+        if (Files.isReadable(derivative)) {
+            return Optional.of(new Rendition(derivative, "image/jpeg", true));
+        }
+        // The fallback serves the original upload, so only for content that really is someone's avatar
+        Path original = fileStorageService.resolve(hash);
+        if (!Files.isReadable(original) || !userRepository.existsByAvatar(URL_PREFIX + hash)) {
+            return Optional.empty();
+        }
+        scheduleRender(hash);
+        return Optional.of(new Rendition(original, sniffContentType(original), false));
+    }
+
+    /**
+     * An image file to send; {@code cacheable} is false for the temporary fallback to the original.
+     */
+    public record Rendition(Path path, String contentType, boolean cacheable) {}
+
+    private void scheduleRender(String hash) {
+        if (rendering.add(hash)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        render(hash);
+                    } finally {
+                        rendering.remove(hash);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Dropped rather than rendered on the request thread; the original is served
+                // meanwhile and the next request for the avatar schedules it again
+                rendering.remove(hash);
+                log.debug("Avatar render queue full, skipped {}", hash);
+            }
+        }
+    }
+
+    private void render(String hash) {
+        Path original = fileStorageService.resolve(hash);
+        if (Arrays.stream(sizes).allMatch(size -> Files.exists(derivative(hash, size)))) {
+            return;
+        }
+        try {
+            BufferedImage source = decode(original);
+            if (source == null) {
+                log.warn("Avatar {} could not be decoded", hash);
+                return;
+            }
+            for (int size : sizes) {
+                Path target = derivative(hash, size);
+                if (Files.exists(target)) {
+                    continue;
+                }
+                // Written under a temporary name so readers never see a partial file
+                Path partial = Files.createTempFile(target.getParent(), hash, ".tmp");
+                try {
+                    ImageIO.write(squareThumbnail(source, size), "jpg", partial.toFile());
+                    Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    FileStorageService.deleteQuietly(partial);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to render avatar {}", hash, e);
+        }
+    }
+
+    private BufferedImage decode(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                // Checked before decoding, so a tiny file declaring huge dimensions can't exhaust the heap
+                if (reader.getWidth(0) > maxDimension || reader.getHeight(0) > maxDimension) {
+                    log.warn("Avatar {} exceeds {}px", path.getFileName(), maxDimension);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Center-crops to a square and scales down in halving steps, which keeps bilinear
+     * filtering sharp without the cost of area-averaging the full image.
+     */
+    private static BufferedImage squareThumbnail(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage current = source.getSubimage((source.getWidth() - side) / 2, (source.getHeight() - side) / 2,
+                side, side);
+        int currentSize = side;
+        do {
+            int next = Math.max(size, currentSize / 2);
+            current = draw(current, next);
+            currentSize = next;
+        } while (currentSize > size);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            // JPEG has no alpha; transparent areas become white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, size, size);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static String sniffContentType(Path path) {
+        // Blobs are stored without an extension, so look at the magic bytes instead
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            String type = URLConnection.guessContentTypeFromStream(in);
+            return type != null ? type : "application/octet-stream";
+        } catch (IOException e) {
+            return "application/octet-stream";
+        }
+    }
+
+    private Path derivative(String hash, int size) {
+        Path original = fileStorageService.resolve(hash);
+        return original.resolveSibling(hash + "-" + size + ".jpg");
+    }
+
+    private static Optional<String> hashOf(String avatarUrl) {
+        if (avatarUrl == null) {
+            return Optional.empty();
+        }
+        int start = avatarUrl.indexOf(URL_PREFIX);
+        if (start < 0) {
+            return Optional.empty();
+        }
+        String hash = avatarUrl.substring(start + URL_PREFIX.length());
+        return HASH.matcher(hash).matches() ? Optional.of(hash) : Optional.empty();
+    }
+}
@@ -0,0 +1,237 @@
+package com.promin.service;
+
+import com.promin.entity.FileResource;
+import com.promin.entity.Job;
+import com.promin.entity.UploadSession;
+import com.promin.entity.UploadStatus;
+import com.promin.repository.JobRepository;
+import com.promin.repository.UploadSessionRepository;
+import com.promin.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumable uploads in fixed-size chunks. Starting a session preallocates the whole file; each
+ * chunk is written straight to its own region with positional writes, so chunks may arrive in
+ * any order, in parallel, and be retried. Completing the session hands the assembled file to
+ * {@link FileStorageService}.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${file.chunked.chunk-size:8MB}")
+    private DataSize chunkSize;
+
+    @Value("${file.chunked.max-size:5GB}")
+    private DataSize maxSize;
+
+    @Value("${file.chunked.session-ttl:P1D}")
+    private Duration sessionTtl;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public UploadSession start(Long userId, Long jobId, String originalName, String contentType, long totalSize) {
+        if (totalSize <= 0 || totalSize > maxSize.toBytes()) {
+            throw new IllegalArgumentException("File size must be between 1 byte and " + maxSize.toMegabytes() + "MB");
+        }
+        if (jobId != null && !jobRepository.existsById(jobId)) {
+            throw new IllegalArgumentException("Job not found");
+        }
+        int size = (int) chunkSize.toBytes();
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUserId(userId);
+        session.setJobId(jobId);
+        session.setOriginalName(originalName != null && !originalName.isBlank() ? originalName : "file");
+        session.setContentType(contentType != null && !contentType.isBlank() ? contentType : "application/octet-stream");
+        session.setTotalSize(totalSize);
+        session.setChunkSize(size);
+        session.setChunkCount((int) ((totalSize + size - 1) / size));
+        session.setExpiresAt(LocalDateTime.now().plus(sessionTtl));
+
+        Path target = target(session.getId());
+        try (RandomAccessFile file = new RandomAccessFile(target.toFile(), "rw")) {
+            // Sparse on most filesystems; reserves the final length so every chunk has its region
+            file.setLength(totalSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to allocate upload", e);
+        }
+        return uploadSessionRepository.save(session);
+    }
+
+    public UploadSession get(String id, Long userId) {
+        UploadSession session = uploadSessionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Upload not found"));
+        if (!session.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("Upload not found");
+        }
+        return session;
+    }
+
+    public List<Integer> receivedChunks(String id) {
+        return uploadSessionRepository.findReceivedChunks(id);
+    }
+
+    /**
+     * Writes chunk {@code index} at its offset. The body must be exactly the chunk's length;
+     * a short or long body is rejected without being recorded, so the client can simply resend.
+     */
+    public void writeChunk(String id, Long userId, int index, InputStream body) throws IOException {
+        UploadSession session = get(id, userId);
+        if (session.getStatus() != UploadStatus.OPEN) {
+            throw new IllegalArgumentException("Upload is already complete");
+        }
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new IllegalArgumentException("Chunk index out of range");
+        }
+        int length = session.chunkLength(index);
+        long position = (long) index * session.getChunkSize();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(target(id), StandardOpenOption.WRITE)) {
+            byte[] bytes = new byte[COPY_BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int read;
+            while ((read = body.read(bytes, 0, (int) Math.min(bytes.length, length - written + 1))) != -1) {
+                if (written + read > length) {
+                    throw new IllegalArgumentException("Chunk " + index + " must be " + length + " bytes");
+                }
+                buffer.limit(read).position(0);
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, position + written);
+                }
+            }
+        }
+        if (written != length) {
+            throw new IllegalArgumentException("Chunk " + index + " must be " + length + " bytes");
+        }
+        uploadSessionRepository.markChunkReceived(id, index, length);
+    }
+
+    /**
+     * Finishes the upload once every chunk has been received. Completing an already completed
+     * session returns the same file, so the call is safe to retry.
+     * <p>
+     * The session is claimed in one short transaction and the file recorded in another; hashing,
+     * which reads the whole file, holds neither a connection nor the row lock. A claimed session
+     * goes back to {@code OPEN} if hashing or recording fails. One left {@code COMPLETING} by a
+     * crash is removed when it expires.
+     */
+    public Long complete(String id, Long userId) {
+        UploadSession claimed = transactionTemplate.execute(status -> claim(id, userId));
+        if (claimed.getStatus() == UploadStatus.COMPLETED) {
+            return claimed.getFileId();
+        }
+        Long fileId;
+        try {
+            FileStorageService.HashedContent content = fileStorageService.hash(target(id));
+            fileId = transactionTemplate.execute(status -> finish(id, userId, content));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> uploadSessionRepository.findForUpdate(id)
+                    .filter(s -> s.getStatus() == UploadStatus.COMPLETING)
+                    .ifPresent(s -> s.setStatus(UploadStatus.OPEN)));
+            throw e;
+        }
+        FileStorageService.deleteQuietly(target(id));
+        return fileId;
+    }
+
+    private UploadSession claim(String id, Long userId) {
+        // Row lock: concurrent completions of the same session run one after the other
+        UploadSession session = uploadSessionRepository.findForUpdate(id)
+                .filter(s -> s.getUserId().equals(userId))
+                .orElseThrow(() -> new IllegalArgumentException("Upload not found"));
+        if (session.getStatus() == UploadStatus.COMPLETED) {
+            return session;
+        }
+        if (session.getStatus() == UploadStatus.COMPLETING) {
+            throw new IllegalArgumentException("Upload is already being completed");
+        }
+        long received = uploadSessionRepository.countReceivedChunks(id);
+        if (received != session.getChunkCount()) {
+            throw new IllegalArgumentException("Upload is missing " + (session.getChunkCount() - received) + " chunks");
+        }
+        session.setStatus(UploadStatus.COMPLETING);
+        return uploadSessionRepository.save(session);
+    }
+
+    private Long finish(String id, Long userId, FileStorageService.HashedContent content) {
+        // Aborted or expired while the file was being hashed
+        UploadSession session = uploadSessionRepository.findForUpdate(id)
+                .filter(s -> s.getStatus() == UploadStatus.COMPLETING)
+                .orElseThrow(() -> new IllegalArgumentException("Upload not found"));
+        Job job = session.getJobId() != null ? jobRepository.getReferenceById(session.getJobId()) : null;
+        FileResource file = fileStorageService.record(content, session.getOriginalName(), session.getContentType(),
+                userRepository.getReferenceById(userId), job);
+        session.setStatus(UploadStatus.COMPLETED);
+        session.setFileId(file.getId());
+        uploadSessionRepository.save(session);
+        return file.getId();
+    }
+
+    public void abort(String id, Long userId) {
+        UploadSession session = get(id, userId);
+        uploadSessionRepository.delete(session);
+        FileStorageService.deleteQuietly(target(id));
+    }
+
+    @Scheduled(fixedDelayString = "${file.chunked.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        List<String> expired = uploadSessionRepository.findExpiredIds(LocalDateTime.now());
+        for (String id : expired) {
+            uploadSessionRepository.deleteById(id);
+            FileStorageService.deleteQuietly(target(id));
+        }
+        if (!expired.isEmpty()) {
+            log.info("Deleted {} expired upload sessions", expired.size());
+        }
+    }
+
+    private Path target(String id) {
+        return fileStorageService.tempDir().resolve("chunked-" + id + ".part");
+    }
+}
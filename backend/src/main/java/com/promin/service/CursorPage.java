@@ -0,0 +1,30 @@
+package com.promin.service;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. There is deliberately no total count.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, boolean hasNext, int size) {
+
+    public static final int MAX_SIZE = 100;
+
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, KeysetCursor> cursorOf) {
+        List<T> content = slice.getContent();
+        String next = slice.hasNext() && !content.isEmpty()
+                ? cursorOf.apply(content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(content, next, slice.hasNext(), content.size());
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).toList(), nextCursor, hasNext, size);
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
@@ -0,0 +1,183 @@
+package com.promin.service;
+
+import com.promin.entity.ApplicationStatus;
+import com.promin.entity.JobStatus;
+import com.promin.entity.Role;
+import com.promin.entity.RollupMetric;
+import com.promin.entity.User;
+import com.promin.repository.ApplicationRepository;
+import com.promin.repository.JobRepository;
+import com.promin.repository.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds the dashboard statistics from grouped aggregate queries. Independent aggregates run
+ * concurrently on a small bounded pool; when it is saturated the request thread runs them itself.
+ * Platform-wide figures come from {@link PlatformCounters} instead of the database, and the
+ * growth rate from the {@link AnalyticsService} rollups.
+ */
+@Service
+public class DashboardService {
+
+    // Same window as the analytics page's default
+    private static final String GROWTH_PERIOD = "30d";
+
+    @Value("${dashboard.stats.threads:4}")
+    private int threads;
+
+    @Value("${dashboard.stats.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private PlatformCounters platformCounters;
+
+    @Autowired
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    private ThreadPoolExecutor executor;
+
+    private record StatusAggregate(long count, BigDecimal budget) {}
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-stats-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public Map<String, Object> requesterStats(User requester) {
+        CompletableFuture<Double> rating = async(() -> averageRating(requester));
+        Map<JobStatus, StatusAggregate> jobStats =
+                byJobStatus(jobRepository.aggregateByRequesterGroupedByStatus(requester));
+        Map<String, Object> res = new HashMap<>();
+        res.put("totalJobs", total(jobStats));
+        res.put("activeApplications", userCounterService.receivedApplications(requester.getId()));
+        res.put("totalSpent", jobStats.get(JobStatus.COMPLETED).budget());
+        putJobStatusCounts(res, jobStats);
+        res.put("averageRating", rating.join());
+        return res;
+    }
+
+    public Map<String, Object> taskerStats(User tasker) {
+        CompletableFuture<Map<ApplicationStatus, Long>> applications =
+                async(() -> byApplicationStatus(applicationRepository.countByTaskerGroupedByStatus(tasker)));
+        CompletableFuture<Map<JobStatus, StatusAggregate>> jobs =
+                async(() -> byJobStatus(jobRepository.aggregateByTaskerGroupedByStatus(tasker)));
+        CompletableFuture<Double> rating = async(() -> averageRating(tasker));
+
+        Map<ApplicationStatus, Long> applicationStats = applications.join();
+        Map<JobStatus, StatusAggregate> jobStats = jobs.join();
+        Map<String, Object> res = new HashMap<>();
+        res.put("totalApplications", applicationStats.values().stream().mapToLong(Long::longValue).sum());
+        res.put("pendingApplications", applicationStats.get(ApplicationStatus.PENDING));
+        res.put("acceptedApplications", applicationStats.get(ApplicationStatus.ACCEPTED));
+        res.put("rejectedApplications", applicationStats.get(ApplicationStatus.REJECTED));
+        res.put("totalEarned", jobStats.get(JobStatus.COMPLETED).budget());
+        res.put("completedJobs", jobStats.get(JobStatus.COMPLETED).count());
+        res.put("averageRating", rating.join());
+        return res;
+    }
+
+    public Map<String, Object> adminStats() {
+        PlatformCounters.Snapshot counters = platformCounters.snapshot();
+        Map<String, Object> res = new HashMap<>();
+        res.put("totalUsers", counters.totalUsers());
+        res.put("requesterCount", counters.usersByRole().get(Role.REQUESTER));
+        res.put("taskerCount", counters.usersByRole().get(Role.TASKER));
+        res.put("adminCount", counters.usersByRole().get(Role.ADMIN));
+        res.put("totalJobs", counters.totalJobs());
+        res.put("openJobs", counters.jobsByStatus().get(JobStatus.OPEN));
+        res.put("inProgressJobs", counters.jobsByStatus().get(JobStatus.IN_PROGRESS));
+        res.put("completedJobs", counters.jobsByStatus().get(JobStatus.COMPLETED));
+        res.put("cancelledJobs", counters.jobsByStatus().get(JobStatus.CANCELLED));
+        res.put("platformRevenue", counters.platformRevenue());
+        res.put("growthRate", analyticsService.growthRate(RollupMetric.SIGNUPS, GROWTH_PERIOD));
+        return res;
+    }
+
+    // Rounded to one decimal; null until the user has been reviewed
+    private Double averageRating(User user) {
+        Double average = reviewRepository.getAverageRatingByReviewee(user);
+        return average != null ? Math.round(average * 10) / 10.0 : null;
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    private static void putJobStatusCounts(Map<String, Object> res, Map<JobStatus, StatusAggregate> jobStats) {
+        res.put("openJobs", jobStats.get(JobStatus.OPEN).count());
+        res.put("inProgressJobs", jobStats.get(JobStatus.IN_PROGRESS).count());
+        res.put("completedJobs", jobStats.get(JobStatus.COMPLETED).count());
+        res.put("cancelledJobs", jobStats.get(JobStatus.CANCELLED).count());
+    }
+
+    private static long total(Map<JobStatus, StatusAggregate> jobStats) {
+        return jobStats.values().stream().mapToLong(StatusAggregate::count).sum();
+    }
+
+    /**
+     * Folds {@code (status, count, sum(budget))} rows into a map with an entry for every status.
+     */
+    private static Map<JobStatus, StatusAggregate> byJobStatus(List<Object[]> rows) {
+        Map<JobStatus, StatusAggregate> result = new EnumMap<>(JobStatus.class);
+        for (JobStatus status : JobStatus.values()) {
+            result.put(status, new StatusAggregate(0, BigDecimal.ZERO));
+        }
+        for (Object[] row : rows) {
+            BigDecimal budget = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            result.put((JobStatus) row[0], new StatusAggregate((Long) row[1], budget));
+        }
+        return result;
+    }
+
+    private static Map<ApplicationStatus, Long> byApplicationStatus(List<Object[]> rows) {
+        Map<ApplicationStatus, Long> result = new EnumMap<>(ApplicationStatus.class);
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            result.put(status, 0L);
+        }
+        for (Object[] row : rows) {
+            result.put((ApplicationStatus) row[0], (Long) row[1]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,243 @@
+package com.promin.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams whole tables as CSV or NDJSON. Rows are read through a forward-only MySQL streaming
+ * result set (fetch size {@link Integer#MIN_VALUE}) and written straight to the response, so memory
+ * use does not depend on the row count.
+ */
+@Service
+public class ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public enum Type {
+        USERS("users",
+                "SELECT id, first_name, last_name, email, phone, location, role, status, email_verified, " +
+                "last_login_at, created_at FROM users ORDER BY id"),
+        JOBS("jobs",
+                "SELECT id, title, description, budget, deadline, location, status, requester_id, " +
+                "assigned_tasker_id, created_at, completed_at FROM jobs ORDER BY id"),
+        APPLICATIONS("applications",
+                "SELECT id, job_id, tasker_id, status, proposed_amount, proposed_deadline, created_at " +
+                "FROM applications ORDER BY id"),
+        TRANSACTIONS("transactions",
+                "SELECT id, transaction_id, amount, status, type, job_id, payer_id, payee_id, payment_method, " +
+                "processed_at, created_at FROM payment_transactions ORDER BY id"),
+        AUDIT_LOGS("audit-logs",
+                "SELECT id, timestamp, action, resource_type, resource_id, user_id, ip_address, details " +
+                "FROM audit_logs ORDER BY id"),
+        ANALYTICS("analytics",
+                "SELECT bucket_start, metric, total FROM metric_rollups WHERE granularity = 'DAY' " +
+                "ORDER BY bucket_start, metric");
+
+        private final String path;
+        private final String sql;
+
+        Type(String path, String sql) {
+            this.path = path;
+            this.sql = sql;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public static Optional<Type> fromPath(String path) {
+            for (Type type : values()) {
+                if (type.path.equals(path)) {
+                    return Optional.of(type);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String name) {
+            return "ndjson".equalsIgnoreCase(name) || "json".equalsIgnoreCase(name) ? NDJSON : CSV;
+        }
+    }
+
+    public void export(Type type, Format format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rows = format == Format.NDJSON
+                ? new NdjsonRowWriter(objectMapper.getFactory(), writer)
+                : new CsvRowWriter(writer);
+
+        PreparedStatementCreator streaming = connection -> {
+            PreparedStatement statement = connection.prepareStatement(type.sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J streams rows one at a time instead of buffering the result set
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        };
+        ResultSetExtractor<Void> copy = rs -> {
+            try {
+                ResultSetMetaData meta = rs.getMetaData();
+                String[] columns = new String[meta.getColumnCount()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = meta.getColumnLabel(i + 1);
+                }
+                rows.header(columns);
+                Object[] values = new Object[columns.length];
+                while (rs.next()) {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = normalize(rs.getObject(i + 1));
+                    }
+                    rows.row(columns, values);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        };
+        jdbcTemplate.query(streaming, copy);
+        writer.flush();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value;
+    }
+
+    private interface RowWriter {
+        void header(String[] columns) throws IOException;
+
+        void row(String[] columns, Object[] values) throws IOException;
+    }
+
+    static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void header(String[] columns) throws IOException {
+            line(columns);
+        }
+
+        @Override
+        public void row(String[] columns, Object[] values) throws IOException {
+            line(values);
+        }
+
+        private void line(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (value instanceof Number) {
+                    writer.write(String.valueOf(value));
+                } else if (value != null) {
+                    writer.write(escape(String.valueOf(value)));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            // Text a spreadsheet would run as a formula is prefixed so it opens as plain text
+            if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                return "\"'" + value.replace("\"", "\"\"") + '"';
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final Writer writer;
+
+        NdjsonRowWriter(JsonFactory factory, Writer writer) throws IOException {
+            this.writer = writer;
+            // One object per line: the newline is written by hand, and flushing the generator after
+            // each row must only drain its own buffer, not the buffered writer underneath
+            this.generator = factory.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(String[] columns) {
+        }
+
+        @Override
+        public void row(String[] columns, Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    generator.writeRawValue(String.valueOf(value));
+                } else {
+                    generator.writeString(String.valueOf(value));
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.promin.service;
+
+import com.promin.entity.FileResource;
+import com.promin.entity.Job;
+import com.promin.entity.User;
+import com.promin.repository.FileBlobRepository;
+import com.promin.repository.FileResourceRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores uploaded files on local disk under {@code file.upload-dir}, addressed by the SHA-256
+ * of their content ({@code ab/cd/abcd...}). Uploads are streamed to a temporary file while
+ * being hashed and then moved into place, so a file is never held in memory.
+ * <p>
+ * Identical content is kept once as a {@code file_blobs} row with a reference count. Blobs
+ * that stay unreferenced for {@code file.gc.grace-period} are deleted by a periodic sweep; a
+ * striped lock per hash keeps the sweep from deleting content an upload is about to reuse.
+ * <p>
+ * Content is copied and hashed before any transaction starts; only recording it takes a
+ * connection, so a slow client or a large file never holds one. It is moved into place once
+ * the transaction recording it commits, so a rollback never leaves content without a blob row.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${file.upload-dir:./uploads}")
+    private String uploadDir;
+
+    @Value("${file.gc.grace-period:PT1H}")
+    private Duration gcGracePeriod;
+
+    @Value("${file.gc.batch-size:500}")
+    private int gcBatchSize;
+
+    @Value("${file.blob.lock-stripes:64}")
+    private int lockStripes;
+
+    @Autowired
+    private FileResourceRepository fileResourceRepository;
+
+    @Autowired
+    private FileBlobRepository fileBlobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Path root;
+    private Path tmp;
+    private ReentrantLock[] locks;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+        locks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A fully written file under the temporary directory and the hash of its content.
+     */
+    public record HashedContent(Path path, String hash, long size) {}
+
+    public FileResource store(InputStream in, String originalName, String contentType, User user, Job job) {
+        MessageDigest digest = sha256();
+        Path upload = null;
+        try {
+            upload = Files.createTempFile(tmp, "upload-", ".part");
+            long size;
+            try (InputStream hashing = new DigestInputStream(in, digest)) {
+                size = Files.copy(hashing, upload, StandardCopyOption.REPLACE_EXISTING);
+            }
+            HashedContent content = new HashedContent(upload, HexFormat.of().formatHex(digest.digest()), size);
+            return transactionTemplate.execute(status -> record(content, originalName, contentType, user, job));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store upload", e);
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    /**
+     * Hashes a file already assembled under the temporary directory, such as a completed
+     * chunked upload, reading it once. Runs outside any transaction; the result is then passed
+     * to {@link #record}.
+     */
+    public HashedContent hash(Path source) {
+        MessageDigest digest = sha256();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+            long size = 0;
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+                size += read;
+            }
+            return new HashedContent(source, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to hash upload", e);
+        }
+    }
+
+    /**
+     * Directory for content still being assembled; it is on the same filesystem as the store,
+     * so completed files are moved into place without copying.
+     */
+    Path tempDir() {
+        return tmp;
+    }
+
+    /**
+     * Records hashed content: takes a reference on its blob and saves the file row, then after
+     * commit moves the content into place unless identical content already is.
+     * {@code content.path()} is consumed once the transaction commits.
+     */
+    @Transactional
+    public FileResource record(HashedContent content, String originalName, String contentType, User user, Job job) {
+        acquire(content.path(), content.hash(), content.size());
+        FileResource file = new FileResource(name(originalName), content.hash(), relativePath(content.hash()),
+                contentType != null && !contentType.isBlank() ? contentType : DEFAULT_CONTENT_TYPE, content.size());
+        file.setUser(user);
+        file.setJob(job);
+        return fileResourceRepository.save(file);
+    }
+
+    /**
+     * Takes a reference on the blob for {@code hash} and, once that commits, makes sure its
+     * content is on disk, moving the fully written {@code source} into place unless identical
+     * content already is.
+     */
+    void acquire(Path source, String hash, long size) {
+        ReentrantLock lock = lock(hash);
+        lock.lock();
+        try {
+            fileBlobRepository.acquire(hash, size);
+        } finally {
+            lock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    moveIntoPlace(source, hash);
+                }
+            });
+        } else {
+            moveIntoPlace(source, hash);
+        }
+    }
+
+    // Under the hash's lock, so the sweep cannot delete the content between the check and the move
+    private void moveIntoPlace(Path source, String hash) {
+        ReentrantLock lock = lock(hash);
+        lock.lock();
+        try {
+            Path target = resolve(hash);
+            if (Files.exists(target)) {
+                return;
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Another upload of the same content won the race
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store upload", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<FileResource> find(Long id) {
+        return fileResourceRepository.findById(id);
+    }
+
+    /**
+     * Whether the user uploaded the file or is the requester or assigned tasker of its job.
+     */
+    public boolean isAccessibleBy(Long fileId, Long userId) {
+        return fileResourceRepository.isAccessibleBy(fileId, userId);
+    }
+
+    public Path resolve(FileResource file) {
+        return resolve(file.getFileName());
+    }
+
+    public Path resolve(String hash) {
+        return root.resolve(relativePath(hash));
+    }
+
+    /**
+     * Deletes the record and drops its reference on the blob; the content itself is removed
+     * by {@link #collectGarbage()} once the blob has been unreferenced for the grace period.
+     */
+    @Transactional
+    public void delete(FileResource file) {
+        fileResourceRepository.delete(file);
+        fileBlobRepository.release(file.getFileName());
+    }
+
+    @Scheduled(fixedDelayString = "${file.gc.interval:PT10M}", initialDelayString = "${file.gc.interval:PT10M}")
+    public void collectGarbage() {
+        LocalDateTime before = LocalDateTime.now().minus(gcGracePeriod);
+        int collected = 0;
+        List<String> candidates;
+        do {
+            candidates = fileBlobRepository.findReleasedBefore(before, PageRequest.of(0, gcBatchSize));
+            int deleted = 0;
+            for (String hash : candidates) {
+                ReentrantLock lock = lock(hash);
+                lock.lock();
+                try {
+                    // Rechecked under the lock and in the same statement, so a blob that was
+                    // just reused (or is being reused by an open transaction) is kept
+                    if (fileBlobRepository.deleteIfUnreferenced(hash) == 1) {
+                        deleteWithDerivatives(hash);
+                        deleted++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            collected += deleted;
+            // Stop on a batch where nothing could be deleted rather than fetching it again
+            if (deleted == 0) {
+                break;
+            }
+        } while (candidates.size() == gcBatchSize);
+        if (collected > 0) {
+            log.info("Collected {} unreferenced file blobs", collected);
+        }
+    }
+
+    @Scheduled(cron = "${file.gc.reconcile-cron:0 30 4 * * *}")
+    public void reconcileReferences() {
+        int corrected = fileBlobRepository.reconcileReferences();
+        if (corrected > 0) {
+            log.info("Corrected reference counts of {} file blobs", corrected);
+        }
+    }
+
+    /**
+     * Deletes the content and any derivatives rendered next to it ({@code <hash>-*}).
+     */
+    private void deleteWithDerivatives(String hash) {
+        Path content = resolve(hash);
+        deleteQuietly(content);
+        try (DirectoryStream<Path> derivatives = Files.newDirectoryStream(content.getParent(), hash + "-*")) {
+            derivatives.forEach(FileStorageService::deleteQuietly);
+        } catch (IOException ignored) {
+            // Directory already gone
+        }
+    }
+
+    private ReentrantLock lock(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), locks.length)];
+    }
+
+    private static String relativePath(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    private static String name(String originalName) {
+        if (originalName == null || originalName.isBlank()) {
+            return "file";
+        }
+        // Browsers on Windows may send the full client path
+        String name = originalName.substring(Math.max(originalName.lastIndexOf('/'), originalName.lastIndexOf('\\')) + 1);
+        return name.length() > MAX_NAME_LENGTH ? name.substring(name.length() - MAX_NAME_LENGTH) : name;
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Left for manual cleanup; never fail the request over it
+        }
+    }
+}
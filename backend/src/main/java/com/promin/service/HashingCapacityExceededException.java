@@ -0,0 +1,14 @@
+package com.promin.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Too many concurrent sign-in requests, please retry shortly")
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public HashingCapacityExceededException() {
+        super("Password hashing capacity exceeded");
+    }
+}
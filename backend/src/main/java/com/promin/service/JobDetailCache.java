@@ -0,0 +1,75 @@
+package com.promin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.promin.dto.JobDetail;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of job detail snapshots. {@link JobDetail} is immutable, so one instance is
+ * shared by every request for the job until {@link JobService} evicts it on a write that changes
+ * it. Missing jobs are not cached. Requester and tasker names can lag a profile edit by up to
+ * {@code jobs.detail-cache.ttl}.
+ */
+@Component
+public class JobDetailCache {
+
+    @Value("${jobs.detail-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${jobs.detail-cache.ttl:PT5M}")
+    private Duration ttl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<Long, JobDetail> cache;
+    private Timer loadTimer;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jobDetails");
+        Gauge.builder("jobs.detail-cache.hit-ratio", cache, c -> c.stats().hitRate()).register(meterRegistry);
+        loadTimer = Timer.builder("jobs.detail-cache.load")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public Optional<JobDetail> get(Long jobId, Function<Long, Optional<JobDetail>> loader) {
+        return Optional.ofNullable(cache.get(jobId, id -> loadTimer.record(() -> loader.apply(id).orElse(null))));
+    }
+
+    /**
+     * Drops the snapshot now and again after the surrounding transaction commits, so a read that
+     * loaded the old row while the write was in flight cannot put it back.
+     */
+    public void evict(Long jobId) {
+        cache.invalidate(jobId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(jobId);
+                }
+            });
+        }
+    }
+}
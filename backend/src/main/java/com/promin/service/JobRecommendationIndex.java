@@ -0,0 +1,384 @@
+package com.promin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.promin.entity.ApplicationStatus;
+import com.promin.entity.Job;
+import com.promin.entity.JobStatus;
+import com.promin.repository.ApplicationRepository;
+import com.promin.repository.JobRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Skill-overlap recommendations over OPEN jobs. Every indexed job gets a dense slot number and
+ * every skill id from {@link SkillDictionary} a {@link BitSet} of the slots that require it, so a
+ * tasker's candidates are the union of a handful of bitsets and overlap is counted with bit
+ * lookups rather than joins. Kept current by {@link JobService} and seeded at startup like
+ * {@link JobSearchIndex}.
+ */
+@Component
+public class JobRecommendationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(JobRecommendationIndex.class);
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private static final double SKILL_WEIGHT = 0.7;
+    private static final double BUDGET_WEIGHT = 0.2;
+    private static final double DEADLINE_WEIGHT = 0.1;
+
+    // A completed job says more about what a tasker does than one they were merely hired for
+    private static final double COMPLETED_JOB_WEIGHT = 2.0;
+    private static final double ACCEPTED_JOB_WEIGHT = 1.0;
+
+    @Value("${recommendations.max-results:500}")
+    private int maxResults;
+
+    @Value("${recommendations.deadline-horizon:P7D}")
+    private Duration deadlineHorizon;
+
+    @Value("${recommendations.profile-cache.max-size:10000}")
+    private long profileCacheMaxSize;
+
+    @Value("${recommendations.profile-cache.ttl:PT10M}")
+    private Duration profileCacheTtl;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Indexed by skill id
+    private BitSet[] postings = new BitSet[256];
+    private final Map<Long, Integer> slotsByJob = new HashMap<>();
+    private final List<IndexedJob> slots = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private Cache<Long, Profile> profiles;
+    private volatile boolean ready;
+    // Jobs indexed or removed while the build runs, guarded by the lock; the build's copy of them may be older
+    private final Set<Long> writtenDuringBuild = new HashSet<>();
+
+    public record Result(List<Long> jobIds, long total) {}
+
+    private record IndexedJob(long jobId, Long requesterId, BigDecimal budget, LocalDateTime deadline,
+                              LocalDateTime createdAt, int[] skills) {}
+
+    /**
+     * What a tasker's history says about them: skill weights, the budget they usually work for
+     * and the jobs they have already applied to.
+     */
+    private record Profile(int[] skills, double[] weights, double norm, BigDecimal typicalBudget,
+                           Set<Long> appliedJobIds) {}
+
+    private record Scored(long jobId, double score, LocalDateTime createdAt) {}
+
+    // Ascending from the weakest recommendation, ties going to newer jobs
+    private static final Comparator<Scored> RANKING = Comparator.comparingDouble(Scored::score)
+            .thenComparing(Scored::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(Scored::jobId);
+
+    @PostConstruct
+    void init() {
+        profiles = Caffeine.newBuilder()
+                .maximumSize(profileCacheMaxSize)
+                .expireAfterWrite(profileCacheTtl)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        Thread builder = new Thread(this::build, "job-recommendation-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void build() {
+        long afterId = 0;
+        int indexed = 0;
+        List<Object[]> batch;
+        do {
+            batch = jobRepository.findOpenRecommendationBatch(afterId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, List<Integer>> skills = new HashMap<>();
+            List<Long> ids = batch.stream().map(row -> (Long) row[0]).toList();
+            for (Object[] row : jobRepository.findSkillIdsByJobIds(ids)) {
+                skills.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+            }
+            for (Object[] row : batch) {
+                Long id = (Long) row[0];
+                IndexedJob job = new IndexedJob(id, (Long) row[1], (BigDecimal) row[2], (LocalDateTime) row[3],
+                        (LocalDateTime) row[4], distinct(skills.getOrDefault(id, Collections.emptyList())));
+                lock.writeLock().lock();
+                try {
+                    if (!writtenDuringBuild.contains(id)) {
+                        putLocked(id, job);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                afterId = id;
+            }
+            indexed += batch.size();
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            writtenDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Job recommendation index built with {} open jobs", indexed);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Job job) {
+        index(job.getId(), job.getRequester() != null ? job.getRequester().getId() : null, job.getStatus(),
+                job.getSkillIds(), job.getBudget(), job.getDeadline(), job.getCreatedAt());
+    }
+
+    /**
+     * Indexes an OPEN job, replacing any previous entry; jobs in any other status are removed,
+     * since only open jobs can be recommended.
+     */
+    public void index(Long id, Long requesterId, JobStatus status, Collection<Integer> skillIds,
+                      BigDecimal budget, LocalDateTime deadline, LocalDateTime createdAt) {
+        if (status != JobStatus.OPEN) {
+            remove(id);
+            return;
+        }
+        IndexedJob job = new IndexedJob(id, requesterId, budget, deadline, createdAt, distinct(skillIds));
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                writtenDuringBuild.add(id);
+            }
+            putLocked(id, job);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                writtenDuringBuild.add(id);
+            }
+            Integer slot = slotsByJob.remove(id);
+            if (slot != null) {
+                clearPostings(slot, slots.get(slot));
+                slots.set(slot, null);
+                live.clear(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(Long id, IndexedJob job) {
+        Integer slot = slotsByJob.get(id);
+        if (slot != null) {
+            clearPostings(slot, slots.get(slot));
+        } else {
+            // Reusing freed slots keeps the bitsets as short as the number of open jobs
+            slot = live.nextClearBit(0);
+            slotsByJob.put(id, slot);
+            live.set(slot);
+        }
+        if (slot == slots.size()) {
+            slots.add(job);
+        } else {
+            slots.set(slot, job);
+        }
+        for (int skill : job.skills()) {
+            if (skill >= postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(skill + 1, postings.length * 2));
+            }
+            if (postings[skill] == null) {
+                postings[skill] = new BitSet();
+            }
+            postings[skill].set(slot);
+        }
+    }
+
+    private static int[] distinct(Collection<Integer> skillIds) {
+        return skillIds != null
+                ? skillIds.stream().filter(Objects::nonNull).mapToInt(Integer::intValue).distinct().toArray()
+                : new int[0];
+    }
+
+    /**
+     * Drops the cached profile after the tasker applies or their history changes.
+     */
+    public void evictProfile(Long taskerId) {
+        if (taskerId != null) {
+            profiles.invalidate(taskerId);
+        }
+    }
+
+    /**
+     * Ranks open jobs for a tasker by weighted skill overlap with their history, how the budget
+     * compares to what they usually take on, and how much time is left before the deadline.
+     * Jobs they applied to or posted themselves are left out. A tasker without history, or whose
+     * skills match nothing, gets every open job ranked on budget and deadline alone.
+     */
+    public Result recommend(Long taskerId, int offset, int limit) {
+        Profile profile = profiles.get(taskerId, this::loadProfile);
+        LocalDateTime now = LocalDateTime.now();
+        int wanted = Math.min(offset + limit, maxResults);
+        if (offset >= wanted) {
+            return new Result(Collections.emptyList(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet[] profilePostings = new BitSet[profile.skills().length];
+            BitSet candidates = new BitSet();
+            for (int i = 0; i < profilePostings.length; i++) {
+                int skill = profile.skills()[i];
+                profilePostings[i] = skill < postings.length ? postings[skill] : null;
+                if (profilePostings[i] != null) {
+                    candidates.or(profilePostings[i]);
+                }
+            }
+            if (candidates.isEmpty()) {
+                candidates.or(live);
+            }
+            for (Long applied : profile.appliedJobIds()) {
+                Integer slot = slotsByJob.get(applied);
+                if (slot != null) {
+                    candidates.clear(slot);
+                }
+            }
+
+            PriorityQueue<Scored> top = new PriorityQueue<>(wanted + 1, RANKING);
+            int total = 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                IndexedJob job = slots.get(slot);
+                if (Objects.equals(job.requesterId(), taskerId)
+                        || (job.deadline() != null && job.deadline().isBefore(now))) {
+                    continue;
+                }
+                double overlap = 0;
+                for (int i = 0; i < profilePostings.length; i++) {
+                    if (profilePostings[i] != null && profilePostings[i].get(slot)) {
+                        overlap += profile.weights()[i];
+                    }
+                }
+                // Cosine similarity between the weighted profile and the job's skill set
+                double skillScore = overlap > 0 ? overlap / (profile.norm() * Math.sqrt(job.skills().length)) : 0;
+                double score = SKILL_WEIGHT * skillScore
+                        + BUDGET_WEIGHT * budgetFit(job.budget(), profile.typicalBudget())
+                        + DEADLINE_WEIGHT * deadlineFit(job.deadline(), now);
+                total++;
+                top.add(new Scored(job.jobId(), score, job.createdAt()));
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+
+            List<Scored> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING.reversed());
+            List<Long> page = new ArrayList<>();
+            for (int i = offset; i < ranked.size() && page.size() < limit; i++) {
+                page.add(ranked.get(i).jobId());
+            }
+            return new Result(page, Math.min(total, maxResults));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Profile loadProfile(Long taskerId) {
+        Set<Long> applied = new HashSet<>();
+        Map<Long, Double> jobWeights = new HashMap<>();
+        List<BigDecimal> budgets = new ArrayList<>();
+        for (Object[] row : applicationRepository.findHistoryByTaskerId(taskerId)) {
+            Long jobId = (Long) row[0];
+            applied.add(jobId);
+            if (row[3] != ApplicationStatus.ACCEPTED) {
+                continue;
+            }
+            jobWeights.merge(jobId, row[2] == JobStatus.COMPLETED ? COMPLETED_JOB_WEIGHT : ACCEPTED_JOB_WEIGHT,
+                    Math::max);
+            if (row[1] != null) {
+                budgets.add((BigDecimal) row[1]);
+            }
+        }
+
+        Map<Integer, Double> skillWeights = new HashMap<>();
+        if (!jobWeights.isEmpty()) {
+            for (Object[] row : jobRepository.findSkillIdsByJobIds(jobWeights.keySet())) {
+                skillWeights.merge((Integer) row[1], jobWeights.get((Long) row[0]), Double::sum);
+            }
+        }
+        int[] skills = new int[skillWeights.size()];
+        double[] weights = new double[skillWeights.size()];
+        double sumOfSquares = 0;
+        int i = 0;
+        for (Map.Entry<Integer, Double> entry : skillWeights.entrySet()) {
+            skills[i] = entry.getKey();
+            weights[i] = entry.getValue();
+            sumOfSquares += weights[i] * weights[i];
+            i++;
+        }
+
+        BigDecimal typicalBudget = null;
+        if (!budgets.isEmpty()) {
+            budgets.sort(Comparator.naturalOrder());
+            typicalBudget = budgets.get(budgets.size() / 2);
+        }
+        return new Profile(skills, weights, Math.sqrt(sumOfSquares), typicalBudget, applied);
+    }
+
+    // Paying at least what the tasker usually works for is a full match
+    private static double budgetFit(BigDecimal budget, BigDecimal typical) {
+        if (budget == null || typical == null || typical.signum() <= 0) {
+            return 0.5;
+        }
+        return Math.min(1.0, budget.doubleValue() / typical.doubleValue());
+    }
+
+    // Jobs due very soon are hard to take on; anything beyond the horizon is equally fine
+    private double deadlineFit(LocalDateTime deadline, LocalDateTime now) {
+        if (deadline == null) {
+            return 1.0;
+        }
+        double remaining = Duration.between(now, deadline).toMinutes();
+        return Math.min(1.0, remaining / deadlineHorizon.toMinutes());
+    }
+
+    private void clearPostings(int slot, IndexedJob job) {
+        for (int skill : job.skills()) {
+            BitSet bits = postings[skill];
+            if (bits != null) {
+                bits.clear(slot);
+                if (bits.isEmpty()) {
+                    postings[skill] = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.promin.service;
+
+import com.promin.entity.Job;
+import com.promin.entity.JobStatus;
+import com.promin.repository.JobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over job title, description, skills and location.
+ * Kept current by {@link JobService} on every job write and seeded from the database at startup;
+ * until seeding finishes, callers fall back to SQL.
+ */
+@Component
+public class JobSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SKILL_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedJob> documents = new HashMap<>();
+    private long totalLength;
+    private volatile boolean ready;
+
+    // Writes made while the build runs, guarded by the lock. The build's copy of these jobs may
+    // be older, so it skips written and removed ids and applies the latest status change.
+    private final Set<Long> writtenDuringBuild = new HashSet<>();
+    private final Map<Long, JobStatus> statusDuringBuild = new HashMap<>();
+
+    public record SearchResult(List<Long> jobIds, long total) {}
+
+    private record IndexedJob(JobStatus status, BigDecimal budget, String location, int[] skillIds,
+                              LocalDateTime createdAt, Map<String, Integer> terms, int length) {
+
+        IndexedJob withStatus(JobStatus status) {
+            return new IndexedJob(status, budget, location, skillIds, createdAt, terms, length);
+        }
+    }
+
+    private record Hit(long jobId, double score, LocalDateTime createdAt) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        Thread builder = new Thread(this::build, "job-search-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void build() {
+        long afterId = 0;
+        int indexed = 0;
+        List<Object[]> batch;
+        do {
+            batch = jobRepository.findIndexBatch(afterId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, List<String>> skills = new HashMap<>();
+            List<Long> ids = batch.stream().map(row -> (Long) row[0]).toList();
+            for (Object[] row : jobRepository.findSkillIdsByJobIds(ids)) {
+                String name = skillDictionary.name((Integer) row[1]);
+                if (name != null) {
+                    skills.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(name);
+                }
+            }
+            for (Object[] row : batch) {
+                Long id = (Long) row[0];
+                IndexedJob document = document((String) row[1], (String) row[2], (String) row[3],
+                        skills.getOrDefault(id, Collections.emptyList()),
+                        (JobStatus) row[4], (BigDecimal) row[5], (LocalDateTime) row[6]);
+                lock.writeLock().lock();
+                try {
+                    if (!writtenDuringBuild.contains(id)) {
+                        JobStatus status = statusDuringBuild.get(id);
+                        putLocked(id, status != null ? document.withStatus(status) : document);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                afterId = id;
+            }
+            indexed += batch.size();
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            writtenDuringBuild.clear();
+            statusDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Job search index built with {} jobs", indexed);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Job job) {
+        index(job.getId(), job.getTitle(), job.getDescription(), job.getLocation(), job.getSkills(),
+                job.getStatus(), job.getBudget(), job.getCreatedAt());
+    }
+
+    public void index(Long id, String title, String description, String location, Collection<String> skills,
+                      JobStatus status, BigDecimal budget, LocalDateTime createdAt) {
+        IndexedJob document = document(title, description, location, skills, status, budget, createdAt);
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                writtenDuringBuild.add(id);
+            }
+            putLocked(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private IndexedJob document(String title, String description, String location, Collection<String> skills,
+                                JobStatus status, BigDecimal budget, LocalDateTime createdAt) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, description, TEXT_WEIGHT);
+        addTerms(terms, location, TEXT_WEIGHT);
+        if (skills != null) {
+            for (String skill : skills) {
+                addTerms(terms, skill, SKILL_WEIGHT);
+            }
+        }
+        int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+        // Skills were interned when the job was written, so every name resolves
+        int[] skillIds = skills == null ? new int[0] : skills.stream()
+                .map(skillDictionary::find)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .toArray();
+        return new IndexedJob(status, budget,
+                location != null ? location.toLowerCase(Locale.ROOT) : null, skillIds, createdAt, terms, length);
+    }
+
+    public void updateStatus(Long id, JobStatus status) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                statusDuringBuild.put(id, status);
+            }
+            IndexedJob document = documents.get(id);
+            if (document != null) {
+                documents.put(id, document.withStatus(status));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                writtenDuringBuild.add(id);
+            }
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks jobs containing every query term (the last term also matches as a prefix, for
+     * type-ahead) with BM25, then applies the structured filters in memory and returns one page of ids.
+     * {@code skillIds}, when given, keeps jobs requiring at least one of those skills.
+     */
+    public SearchResult search(String query, JobStatus status, BigDecimal minBudget, BigDecimal maxBudget,
+                               String location, Set<Integer> skillIds, int offset, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new SearchResult(Collections.emptyList(), 0);
+        }
+        String locationFilter = location != null && !location.isEmpty() ? location.toLowerCase(Locale.ROOT) : null;
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount > 0 ? (double) totalLength / documentCount : 1;
+
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = i == tokens.size() - 1;
+                Map<Long, Double> termScores = scoreTerm(tokens.get(i), prefix, documentCount, averageLength);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> current = scores;
+                    termScores.keySet().retainAll(current.keySet());
+                    termScores.replaceAll((id, score) -> score + current.get(id));
+                    scores = termScores;
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>();
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                IndexedJob document = documents.get(entry.getKey());
+                if (matches(document, status, minBudget, maxBudget, locationFilter, skillIds)) {
+                    hits.add(new Hit(entry.getKey(), entry.getValue(), document.createdAt()));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                    .thenComparing(Hit::createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+            List<Long> page = new ArrayList<>();
+            for (int i = offset; i < hits.size() && page.size() < limit; i++) {
+                page.add(hits.get(i).jobId());
+            }
+            return new SearchResult(page, hits.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String token, boolean prefix, int documentCount, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        Collection<Map.Entry<String, Map<Long, Integer>>> matching;
+        if (prefix) {
+            matching = new ArrayList<>();
+            for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(token, true).entrySet()) {
+                if (!entry.getKey().startsWith(token) || matching.size() >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matching.add(entry);
+            }
+        } else {
+            Map<Long, Integer> exact = postings.get(token);
+            matching = exact != null ? List.of(Map.entry(token, exact)) : Collections.emptyList();
+        }
+        for (Map.Entry<String, Map<Long, Integer>> entry : matching) {
+            Map<Long, Integer> docs = entry.getValue();
+            double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+            for (Map.Entry<Long, Integer> posting : docs.entrySet()) {
+                int length = documents.get(posting.getKey()).length();
+                int tf = posting.getValue();
+                double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private static boolean matches(IndexedJob document, JobStatus status, BigDecimal minBudget,
+                                   BigDecimal maxBudget, String location, Set<Integer> skillIds) {
+        if (skillIds != null && Arrays.stream(document.skillIds()).noneMatch(skillIds::contains)) {
+            return false;
+        }
+        if (status != null && document.status() != status) {
+            return false;
+        }
+        if (minBudget != null && (document.budget() == null || document.budget().compareTo(minBudget) < 0)) {
+            return false;
+        }
+        if (maxBudget != null && (document.budget() == null || document.budget().compareTo(maxBudget) > 0)) {
+            return false;
+        }
+        return location == null || (document.location() != null && document.location().contains(location));
+    }
+
+    private void putLocked(Long id, IndexedJob document) {
+        removeLocked(id);
+        documents.put(id, document);
+        totalLength += document.length();
+        for (Map.Entry<String, Integer> term : document.terms().entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(id, term.getValue());
+        }
+    }
+
+    private void removeLocked(Long id) {
+        IndexedJob previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.terms().keySet()) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
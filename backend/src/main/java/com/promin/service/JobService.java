@@ -1,21 +1,35 @@
 package com.promin.service;
 
+import com.promin.dto.ApplicationView;
+import com.promin.dto.JobDetail;
+import com.promin.dto.JobSummary;
 import com.promin.entity.*;
 import com.promin.repository.ApplicationRepository;
 import com.promin.repository.JobRepository;
 import com.promin.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class JobService {
@@ -29,13 +43,146 @@ public class JobService {
     @Autowired
     private UserRepository userRepository;
 
-    public Page<Job> listJobs(Map<String, String> params, Pageable pageable) {
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Autowired
+    private JobRecommendationIndex jobRecommendationIndex;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Autowired
+    private JobDetailCache jobDetailCache;
+
+    @Autowired
+    private UserCounterService userCounterService;
+
+    @Autowired
+    private PlatformCounters platformCounters;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    public Page<JobSummary> listJobs(Map<String, String> params, Pageable pageable) {
         String search = params.getOrDefault("search", null);
         JobStatus status = params.get("status") != null && !params.get("status").isEmpty() ? JobStatus.valueOf(params.get("status")) : null;
         BigDecimal minBudget = params.get("minBudget") != null && !params.get("minBudget").isEmpty() ? new BigDecimal(params.get("minBudget")) : null;
         BigDecimal maxBudget = params.get("maxBudget") != null && !params.get("maxBudget").isEmpty() ? new BigDecimal(params.get("maxBudget")) : null;
         String location = params.getOrDefault("location", null);
-        return jobRepository.findBySearchCriteria(search, status, minBudget, maxBudget, location, pageable);
+        Set<Integer> skillIds = skillFilter(params.get("skills"));
+        if (skillIds != null && skillIds.isEmpty()) {
+            // Only skills no job has ever used
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        if (search != null && jobSearchIndex.isReady() && !JobSearchIndex.tokenize(search).isEmpty()) {
+            JobSearchIndex.SearchResult result = jobSearchIndex.search(search, status, minBudget, maxBudget, location,
+                    skillIds, (int) pageable.getOffset(), pageable.getPageSize());
+            return new PageImpl<>(loadInOrder(result.jobIds()), pageable, result.total());
+        }
+        // Structured filters only, or the index is still being built
+        Page<JobSummary> page = skillIds == null
+                ? jobRepository.findSummariesBySearchCriteria(search, status, minBudget, maxBudget, location, pageable)
+                : jobRepository.findSummariesBySearchCriteriaAndSkills(search, status, minBudget, maxBudget, location,
+                        skillIds, pageable);
+        return new PageImpl<>(withSkills(page.getContent()), pageable, page.getTotalElements());
+    }
+
+    /**
+     * Interned ids for a comma-separated skill filter; null when no filter was given. Skills
+     * unknown to the dictionary are dropped, since no job can have them.
+     */
+    private Set<Integer> skillFilter(String skills) {
+        if (skills == null || skills.isBlank()) {
+            return null;
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (String skill : skills.split(",")) {
+            Integer id = skillDictionary.find(skill);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    public Page<JobSummary> listAllJobs(Pageable pageable) {
+        Page<JobSummary> page = jobRepository.findAllSummaries(pageable);
+        return new PageImpl<>(withSkills(page.getContent()), pageable, page.getTotalElements());
+    }
+
+    /**
+     * Open jobs ranked for the tasker by {@link JobRecommendationIndex}; newest open jobs until
+     * the index has been built.
+     */
+    public Page<JobSummary> recommendJobs(Long taskerId, Pageable pageable) {
+        if (!jobRecommendationIndex.isReady()) {
+            Page<JobSummary> page = jobRepository.findSummariesBySearchCriteria(null, JobStatus.OPEN, null, null, null,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdAt")));
+            return new PageImpl<>(withSkills(page.getContent()), pageable, page.getTotalElements());
+        }
+        JobRecommendationIndex.Result result = jobRecommendationIndex.recommend(taskerId,
+                (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(loadInOrder(result.jobIds()), pageable, result.total());
+    }
+
+    private List<JobSummary> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, JobSummary> byId = new HashMap<>();
+        for (JobSummary job : jobRepository.findSummariesByIds(ids)) {
+            byId.put(job.id(), job);
+        }
+        List<JobSummary> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            JobSummary job = byId.get(id);
+            if (job != null) {
+                ordered.add(job);
+            }
+        }
+        return withSkills(ordered);
+    }
+
+    /**
+     * Attaches skills to a page of summaries with one extra query, instead of one per job.
+     */
+    private List<JobSummary> withSkills(List<JobSummary> jobs) {
+        if (jobs.isEmpty()) {
+            return jobs;
+        }
+        Map<Long, List<String>> skills = skillsByJobId(jobs.stream().map(JobSummary::id).toList());
+        return jobs.stream()
+                .map(job -> job.withSkills(skills.getOrDefault(job.id(), List.of())))
+                .toList();
+    }
+
+    private Map<Long, List<String>> skillsByJobId(List<Long> ids) {
+        Map<Long, List<String>> skills = new HashMap<>();
+        for (Object[] row : jobRepository.findSkillIdsByJobIds(ids)) {
+            String name = skillDictionary.name((Integer) row[1]);
+            if (name != null) {
+                skills.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(name);
+            }
+        }
+        return skills;
+    }
+
+    public CursorPage<JobSummary> listJobsByCursor(Map<String, String> params, String cursor, int size) {
+        JobStatus status = params.get("status") != null && !params.get("status").isEmpty() ? JobStatus.valueOf(params.get("status")) : null;
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, CursorPage.clampSize(size));
+        Slice<JobSummary> slice = after == null
+                ? jobRepository.findFirstByKeyset(status, pageable)
+                : jobRepository.findByKeysetAfter(status, after.createdAt(), after.id(), pageable);
+        CursorPage<JobSummary> page = CursorPage.of(slice, job -> new KeysetCursor(job.createdAt(), job.id()));
+        return new CursorPage<>(withSkills(page.content()), page.nextCursor(), page.hasNext(), page.size());
     }
 
     public Page<Job> listJobsForRequester(Long requesterId, Pageable pageable) {
@@ -47,12 +194,29 @@ public class JobService {
         return jobRepository.findById(id);
     }
 
+    public Optional<JobDetail> getJobDetail(Long id) {
+        return jobDetailCache.get(id, this::loadJobDetail);
+    }
+
+    private Optional<JobDetail> loadJobDetail(Long id) {
+        return jobRepository.findDetailById(id)
+                .map(job -> job.withSkills(List.copyOf(skillsByJobId(List.of(id)).getOrDefault(id, List.of()))));
+    }
+
     public Job createJob(Job job, Long requesterId) {
         User requester = userRepository.findById(requesterId).orElseThrow();
         job.setRequester(requester);
-        return jobRepository.save(job);
+        job.setSkillIds(skillDictionary.intern(job.getSkills()));
+        Job saved = jobRepository.save(job);
+        jobSearchIndex.index(saved);
+        jobRecommendationIndex.index(saved);
+        platformCounters.jobCreated(saved.getStatus());
+        analyticsService.record(RollupMetric.JOBS_POSTED);
+        auditService.record(AuditAction.CREATE_JOB, "JOB", saved.getId(), saved.getTitle());
+        return saved;
     }
 
+    @Transactional
     public Job updateJob(Long id, Job payload, Long requesterId) {
         Job job = jobRepository.findById(id).orElseThrow();
         job.setTitle(payload.getTitle());
@@ -61,11 +225,36 @@ public class JobService {
         job.setDeadline(payload.getDeadline());
         job.setLocation(payload.getLocation());
         job.setSkills(payload.getSkills());
-        return jobRepository.save(job);
+        // Changed in place so only added and removed skills are written
+        Set<Integer> skillIds = skillDictionary.intern(payload.getSkills());
+        job.getSkillIds().retainAll(skillIds);
+        job.getSkillIds().addAll(skillIds);
+        Job saved = jobRepository.save(job);
+        Long ownerId = saved.getRequester().getId();
+        // Skill names come from the payload: the transient list isn't carried over if save merges
+        afterCommit(() -> {
+            jobSearchIndex.index(saved.getId(), saved.getTitle(), saved.getDescription(), saved.getLocation(),
+                    payload.getSkills(), saved.getStatus(), saved.getBudget(), saved.getCreatedAt());
+            jobRecommendationIndex.index(id, ownerId, saved.getStatus(), skillIds, saved.getBudget(),
+                    saved.getDeadline(), saved.getCreatedAt());
+        });
+        jobDetailCache.evict(id);
+        auditService.record(AuditAction.UPDATE_JOB, "JOB", id, null);
+        return saved;
     }
 
     public void deleteJob(Long id) {
+        Optional<Job> job = jobRepository.findById(id);
         jobRepository.deleteById(id);
+        jobSearchIndex.remove(id);
+        jobRecommendationIndex.remove(id);
+        jobDetailCache.evict(id);
+        auditService.record(AuditAction.DELETE_JOB, "JOB", id, null);
+        job.ifPresent(j -> {
+            platformCounters.jobDeleted(j.getStatus());
+            // The job's applications went with it
+            userCounterService.evict(j.getRequester().getId());
+        });
     }
 
     public Application applyToJob(Long jobId, Long taskerId, String proposal, BigDecimal proposedAmount, LocalDate proposedDeadline) {
@@ -78,35 +267,109 @@ public class JobService {
         app.setProposedAmount(proposedAmount);
         app.setProposedDeadline(proposedDeadline != null ? proposedDeadline.atStartOfDay() : null);
         app.setStatus(ApplicationStatus.PENDING);
-        return applicationRepository.save(app);
+        Application saved = applicationRepository.save(app);
+        userCounterService.applicationReceived(job.getRequester().getId());
+        // The application count is part of the snapshot
+        jobDetailCache.evict(jobId);
+        // The tasker's recommendations should stop offering this job
+        jobRecommendationIndex.evictProfile(taskerId);
+        analyticsService.record(RollupMetric.APPLICATIONS);
+        auditService.record(AuditAction.APPLY_JOB, "APPLICATION", saved.getId(), "Job " + jobId);
+        notificationService.notify(job.getRequester().getId(), NotificationType.APPLICATION_RECEIVED,
+                "New application", tasker.getFirstName() + " " + tasker.getLastName() + " applied to \"" + job.getTitle() + "\"",
+                "JOB", jobId);
+        return saved;
     }
 
-    public List<Application> listApplicationsForJob(Long jobId) {
-        Job job = jobRepository.findById(jobId).orElseThrow();
-        return applicationRepository.findByJob(job);
+    public List<ApplicationView> listApplicationsForJob(Long jobId) {
+        if (!jobRepository.existsById(jobId)) {
+            throw new NoSuchElementException("Job not found");
+        }
+        return applicationRepository.findViewsByJobId(jobId);
+    }
+
+    public Optional<ApplicationView> getApplicationView(Long applicationId) {
+        return applicationRepository.findViewById(applicationId);
     }
 
+    @Transactional
     public Application updateApplicationStatus(Long jobId, Long applicationId, ApplicationStatus status) {
         Application app = applicationRepository.findById(applicationId).orElseThrow();
         app.setStatus(status);
         if (status == ApplicationStatus.ACCEPTED) {
             Job job = app.getJob();
+            JobStatus previousStatus = job.getStatus();
             job.setAssignedTasker(app.getTasker());
             job.setStatus(JobStatus.IN_PROGRESS);
             jobRepository.save(job);
+            Long acceptedJobId = job.getId();
+            Long taskerId = app.getTasker().getId();
+            afterCommit(() -> {
+                jobSearchIndex.updateStatus(acceptedJobId, JobStatus.IN_PROGRESS);
+                jobRecommendationIndex.remove(acceptedJobId);
+                jobRecommendationIndex.evictProfile(taskerId);
+            });
+            jobDetailCache.evict(acceptedJobId);
+            platformCounters.jobStatusChanged(previousStatus, JobStatus.IN_PROGRESS);
         }
         if (status == ApplicationStatus.REJECTED) {
             // no-op
         }
-        return applicationRepository.save(app);
+        Application saved = applicationRepository.save(app);
+        AuditAction action = status == ApplicationStatus.ACCEPTED
+                ? AuditAction.ACCEPT_APPLICATION
+                : AuditAction.REJECT_APPLICATION;
+        auditService.record(action, "APPLICATION", applicationId, "Job " + jobId);
+        if (status == ApplicationStatus.ACCEPTED || status == ApplicationStatus.REJECTED) {
+            boolean accepted = status == ApplicationStatus.ACCEPTED;
+            notificationService.notify(app.getTasker().getId(),
+                    accepted ? NotificationType.APPLICATION_ACCEPTED : NotificationType.APPLICATION_REJECTED,
+                    accepted ? "Application accepted" : "Application rejected",
+                    "Your application to \"" + app.getJob().getTitle() + "\" was " + (accepted ? "accepted" : "rejected"),
+                    "JOB", app.getJob().getId());
+        }
+        return saved;
     }
 
+    @Transactional
     public Job completeJob(Long jobId) {
         Job job = jobRepository.findById(jobId).orElseThrow();
+        JobStatus previousStatus = job.getStatus();
         job.setStatus(JobStatus.COMPLETED);
         job.setCompletedAt(LocalDateTime.now());
-        return jobRepository.save(job);
+        Job saved = jobRepository.save(job);
+        Long taskerId = job.getAssignedTasker() != null ? job.getAssignedTasker().getId() : null;
+        afterCommit(() -> {
+            jobSearchIndex.updateStatus(jobId, JobStatus.COMPLETED);
+            jobRecommendationIndex.remove(jobId);
+            // A completed job weighs more in the tasker's profile
+            jobRecommendationIndex.evictProfile(taskerId);
+        });
+        jobDetailCache.evict(jobId);
+        platformCounters.jobStatusChanged(previousStatus, JobStatus.COMPLETED);
+        analyticsService.record(RollupMetric.JOBS_COMPLETED);
+        auditService.record(AuditAction.COMPLETE_JOB, "JOB", jobId, null);
+        if (taskerId != null) {
+            notificationService.notify(taskerId, NotificationType.JOB_COMPLETED,
+                    "Job completed", "\"" + job.getTitle() + "\" was marked as completed", "JOB", jobId);
+        }
+        return saved;
     }
-}
-
 
+    /**
+     * Runs {@code action} once the surrounding transaction commits, or right away outside one,
+     * so the in-memory indexes never show a write that was rolled back.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.promin.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Open chat sockets and the conversations each one is subscribed to. A message is serialized
+ * once and written to every subscriber of its conversation. Sockets are wrapped so concurrent
+ * sends are queued per socket up to a limit; a client that stays behind longer is closed and
+ * reloads the history when it reconnects.
+ */
+@Component
+public class MessageHub {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageHub.class);
+
+    @Value("${messaging.socket.send-time-limit:PT10S}")
+    private Duration sendTimeLimit;
+
+    @Value("${messaging.socket.buffer-size-limit:512KB}")
+    private DataSize bufferSizeLimit;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Client> clients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Client>> subscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Client>> byUser = new ConcurrentHashMap<>();
+
+    // Identity equality: the subscription set changes while the client sits in other sets
+    private static final class Client {
+        private final WebSocketSession session;
+        private final Long userId;
+        private final Set<Long> conversations = ConcurrentHashMap.newKeySet();
+
+        Client(WebSocketSession session, Long userId) {
+            this.session = session;
+            this.userId = userId;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("messaging.sockets", clients, ConcurrentMap::size).register(meterRegistry);
+    }
+
+    public void register(WebSocketSession session, Long userId) {
+        WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session,
+                (int) sendTimeLimit.toMillis(), (int) bufferSizeLimit.toBytes());
+        Client client = new Client(decorated, userId);
+        clients.put(session.getId(), client);
+        byUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(client);
+    }
+
+    public void unregister(WebSocketSession session) {
+        Client client = clients.remove(session.getId());
+        if (client == null) {
+            return;
+        }
+        for (Long conversationId : client.conversations) {
+            removeFrom(subscribers, conversationId, client);
+        }
+        removeFrom(byUser, client.userId, client);
+    }
+
+    public void subscribe(WebSocketSession session, Long conversationId) {
+        Client client = clients.get(session.getId());
+        if (client != null && client.conversations.add(conversationId)) {
+            subscribers.computeIfAbsent(conversationId, id -> ConcurrentHashMap.newKeySet()).add(client);
+        }
+    }
+
+    public void unsubscribe(WebSocketSession session, Long conversationId) {
+        Client client = clients.get(session.getId());
+        if (client != null && client.conversations.remove(conversationId)) {
+            removeFrom(subscribers, conversationId, client);
+        }
+    }
+
+    public void publish(Long conversationId, String payload) {
+        Set<Client> targets = subscribers.get(conversationId);
+        if (targets == null) {
+            return;
+        }
+        TextMessage message = new TextMessage(payload);
+        for (Client client : targets) {
+            send(client, message);
+        }
+    }
+
+    /**
+     * Sends to one socket, such as a reply to a command it sent.
+     */
+    public void sendTo(WebSocketSession session, String payload) {
+        Client client = clients.get(session.getId());
+        if (client != null) {
+            send(client, new TextMessage(payload));
+        }
+    }
+
+    public boolean isOnline(Long userId) {
+        return byUser.containsKey(userId);
+    }
+
+    private void send(Client client, TextMessage message) {
+        try {
+            client.session.sendMessage(message);
+        } catch (IOException | RuntimeException e) {
+            // Includes the decorator's overflow; the close callback unregisters the socket
+            log.debug("Closing chat socket of user {}: {}", client.userId, e.getMessage());
+            unregister(client.session);
+            try {
+                client.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException ignored) {
+                // Already gone
+            }
+        }
+    }
+
+    private static void removeFrom(ConcurrentMap<Long, Set<Client>> index, Long key, Client client) {
+        index.computeIfPresent(key, (id, set) -> {
+            set.remove(client);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.promin.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Time-ordered message ids: 41 bits of milliseconds since {@link #EPOCH}, 4 bits of node id and
+ * an 8-bit sequence per millisecond. Ids sort by creation time, so history is paged by id alone,
+ * and at 53 bits they survive a round trip through JavaScript numbers.
+ */
+@Component
+public class MessageIdGenerator {
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 4;
+    private static final int SEQUENCE_BITS = 8;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    @Value("${messaging.node-id:0}")
+    private long nodeId;
+
+    private long lastMillis = -1;
+    private long sequence;
+
+    @PostConstruct
+    void init() {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalStateException("messaging.node-id must be between 0 and " + MAX_NODE);
+        }
+    }
+
+    public synchronized long nextId() {
+        // Never goes backwards, even if the wall clock does
+        long millis = Math.max(System.currentTimeMillis() - EPOCH, lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // Sequence exhausted: borrow the next millisecond instead of waiting for it
+                millis = ++lastMillis;
+            }
+        } else {
+            sequence = 0;
+            lastMillis = millis;
+        }
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+}
@@ -0,0 +1,400 @@
+package com.promin.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.promin.dto.ConversationView;
+import com.promin.entity.Conversation;
+import com.promin.entity.Job;
+import com.promin.entity.Message;
+import com.promin.repository.ApplicationRepository;
+import com.promin.repository.ConversationRepository;
+import com.promin.repository.JobRepository;
+import com.promin.repository.MessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Requester–tasker chat. Sending a message assigns its id, fans it out to the conversation's
+ * sockets and queues it on an {@link AsyncBatchWriter}; rows are inserted in JDBC batches shortly
+ * after. Until then the message is kept in {@code pending}, which history reads merge in, so a
+ * sender always reads its own writes.
+ * <p>
+ * Unread counts per conversation and participant are loaded with one query on first read and
+ * then kept current in memory by {@link #send} and {@link #markRead}, which also feed the
+ * per-user totals in {@link UnreadCounters}.
+ */
+@Service
+public class MessageService {
+
+    private static final String INSERT = "INSERT IGNORE INTO messages " +
+            "(id, conversation_id, sender_id, content, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_LAST_MESSAGE = "UPDATE conversations SET last_message_id = ?, " +
+            "last_message_at = ? WHERE id = ? AND (last_message_id IS NULL OR last_message_id < ?)";
+
+    private static final int MAX_CONVERSATIONS = 100;
+
+    @Value("${messaging.max-length:4000}")
+    private int maxLength;
+
+    @Value("${messaging.write-behind.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${messaging.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${messaging.write-behind.flush-interval:PT0.2S}")
+    private Duration flushInterval;
+
+    @Value("${messaging.write-behind.max-retry-backoff:PT30S}")
+    private Duration maxRetryBackoff;
+
+    @Value("${messaging.cache.max-size:100000}")
+    private long cacheMaxSize;
+
+    @Value("${messaging.unread.lock-stripes:64}")
+    private int unreadLockStripes;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private MessageIdGenerator messageIdGenerator;
+
+    @Autowired
+    private MessageHub messageHub;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AsyncBatchWriter<Message> writer;
+
+    // Messages queued for insert, by conversation and id
+    private final ConcurrentMap<Long, ConcurrentSkipListMap<Long, Message>> pending = new ConcurrentHashMap<>();
+
+    // Participants never change, so membership checks on the send path don't touch the database
+    private Cache<Long, Participants> participants;
+
+    private Cache<UnreadKey, Long> unread;
+
+    // Serialize loads, sends and read pointer moves per counter entry; held across the queries
+    // instead of running them inside the cache's compute, which would block unrelated keys
+    private ReentrantLock[] unreadLocks;
+
+    private record Participants(Long requesterId, Long taskerId) {
+        boolean includes(Long userId) {
+            return requesterId.equals(userId) || taskerId.equals(userId);
+        }
+
+        Long other(Long userId) {
+            return requesterId.equals(userId) ? taskerId : requesterId;
+        }
+    }
+
+    private record UnreadKey(Long conversationId, Long userId) {}
+
+    @PostConstruct
+    void init() {
+        participants = Caffeine.newBuilder().maximumSize(cacheMaxSize).build();
+        unread = Caffeine.newBuilder().maximumSize(cacheMaxSize).build();
+        unreadLocks = new ReentrantLock[unreadLockStripes];
+        for (int i = 0; i < unreadLocks.length; i++) {
+            unreadLocks[i] = new ReentrantLock();
+        }
+        // Chat messages are never dropped: when the queue is full the sender writes its own message,
+        // and batches that fail are retried until the database takes them
+        writer = new AsyncBatchWriter<>("messages", queueCapacity, batchSize, flushInterval,
+                AsyncBatchWriter.OverflowPolicy.CALLER_WRITES, this::persist, meterRegistry, maxRetryBackoff);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.close();
+    }
+
+    /**
+     * Returns the conversation between the job's requester and a tasker, creating it on first use.
+     * A tasker may open one on any job; a requester only with a tasker who applied.
+     */
+    public Conversation openConversation(Long jobId, Long userId, Long taskerId) {
+        Job job = jobRepository.findById(jobId).orElseThrow(() -> new IllegalArgumentException("Job not found"));
+        Long requesterId = job.getRequester().getId();
+        Long tasker = userId.equals(requesterId) ? taskerId : userId;
+        if (tasker == null || tasker.equals(requesterId)) {
+            throw new IllegalArgumentException("A conversation needs a tasker");
+        }
+        if (userId.equals(requesterId) && !applicationRepository.existsByJobIdAndTaskerId(jobId, tasker)) {
+            throw new IllegalArgumentException("Tasker has not applied to this job");
+        }
+        Optional<Conversation> existing = conversationRepository.findByJobIdAndTaskerId(jobId, tasker);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return conversationRepository.saveAndFlush(new Conversation(jobId, requesterId, tasker));
+        } catch (DataIntegrityViolationException e) {
+            // Both sides opened it at the same time
+            return conversationRepository.findByJobIdAndTaskerId(jobId, tasker).orElseThrow(() -> e);
+        }
+    }
+
+    public void requireParticipant(Long conversationId, Long userId) {
+        participants(conversationId, userId);
+    }
+
+    public Message send(Long conversationId, Long senderId, String content) {
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("Message is empty");
+        }
+        if (content.length() > maxLength) {
+            throw new IllegalArgumentException("Message is longer than " + maxLength + " characters");
+        }
+        Participants conversation = participants(conversationId, senderId);
+        Message message = new Message(messageIdGenerator.nextId(), conversationId, senderId, content,
+                LocalDateTime.now());
+        // Queued under the recipient's counter lock: a concurrent load of that counter then sees the
+        // message either as pending or through this increment, never both
+        Long recipientId = conversation.other(senderId);
+        UnreadKey key = new UnreadKey(conversationId, recipientId);
+        ReentrantLock lock = unreadLock(key);
+        lock.lock();
+        try {
+            pending.compute(conversationId, (id, queued) -> {
+                ConcurrentSkipListMap<Long, Message> messages = queued != null ? queued : new ConcurrentSkipListMap<>();
+                messages.put(message.getId(), message);
+                return messages;
+            });
+            unread.asMap().computeIfPresent(key, (k, count) -> count + 1);
+        } finally {
+            lock.unlock();
+        }
+        unreadCounters.addMessages(recipientId, 1);
+        writer.submit(message);
+        messageHub.publish(conversationId, event("message", message));
+        return message;
+    }
+
+    /**
+     * One page of history, newest first, ending before {@code before} (exclusive) when given.
+     */
+    public CursorPage<Message> history(Long conversationId, Long userId, Long before, int size) {
+        participants(conversationId, userId);
+        int limit = CursorPage.clampSize(size);
+        PageRequest page = PageRequest.of(0, limit);
+        Slice<Message> stored = before == null
+                ? messageRepository.findByConversationIdOrderByIdDesc(conversationId, page)
+                : messageRepository.findByConversationIdAndIdLessThanOrderByIdDesc(conversationId, before, page);
+
+        NavigableMap<Long, Message> queued = pending.getOrDefault(conversationId, new ConcurrentSkipListMap<>());
+        if (before != null) {
+            queued = queued.headMap(before, false);
+        }
+        List<Message> content = stored.getContent();
+        boolean hasNext = stored.hasNext();
+        if (!queued.isEmpty()) {
+            // A message being flushed can be in both; keyed by id it appears once
+            TreeMap<Long, Message> merged = new TreeMap<>(Comparator.reverseOrder());
+            content.forEach(message -> merged.put(message.getId(), message));
+            queued.values().forEach(message -> merged.put(message.getId(), message));
+            content = merged.values().stream().limit(limit).toList();
+            hasNext = hasNext || merged.size() > limit;
+        }
+        String next = hasNext && !content.isEmpty() ? String.valueOf(content.get(content.size() - 1).getId()) : null;
+        return new CursorPage<>(content, next, hasNext, content.size());
+    }
+
+    public List<ConversationView> conversations(Long userId) {
+        List<ConversationView> views = new ArrayList<>();
+        for (ConversationView view : conversationRepository.findViewsByParticipant(userId,
+                PageRequest.of(0, MAX_CONVERSATIONS))) {
+            ConversationView.LastMessage latest = view.lastMessage();
+            ConcurrentSkipListMap<Long, Message> queued = pending.get(view.id());
+            Map.Entry<Long, Message> newest = queued != null ? queued.lastEntry() : null;
+            if (newest != null && (latest == null || newest.getKey() > latest.id())) {
+                Message message = newest.getValue();
+                latest = new ConversationView.LastMessage(message.getId(), message.getSenderId(),
+                        message.getContent(), message.getCreatedAt());
+            }
+            views.add(view.withLiveState(messageHub.isOnline(view.otherUser().id()), latest,
+                    unreadCount(view.id(), userId)));
+        }
+        // Messages still queued can move a conversation to the top
+        views.sort(Comparator.comparing((ConversationView view) -> view.lastMessage() != null ? view.lastMessage().id() : 0L)
+                .reversed());
+        return views;
+    }
+
+    public long unreadCount(Long conversationId, Long userId) {
+        UnreadKey key = new UnreadKey(conversationId, userId);
+        Long count = unread.getIfPresent(key);
+        if (count != null) {
+            return count;
+        }
+        ReentrantLock lock = unreadLock(key);
+        lock.lock();
+        try {
+            count = unread.getIfPresent(key);
+            if (count == null) {
+                count = countUnread(key);
+                unread.put(key, count);
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks everything up to {@code upTo}, or the latest message when absent, as read. This moves
+     * the user's read pointer, adjusts the unread totals by exactly the messages it passed, and
+     * sends a read receipt to the conversation.
+     */
+    public void markRead(Long conversationId, Long userId, Long upTo) {
+        participants(conversationId, userId);
+        UnreadKey key = new UnreadKey(conversationId, userId);
+        long pointer;
+        long cleared;
+        // Under the entry's lock, so no message for this user is counted while the pointer moves
+        ReentrantLock lock = unreadLock(key);
+        lock.lock();
+        try {
+            Long count = unread.getIfPresent(key);
+            long before = count != null ? count : countUnread(key);
+            pointer = upTo != null ? upTo : latestMessageId(conversationId);
+            conversationRepository.advanceReadPointer(conversationId, userId, pointer);
+            long after = upTo != null ? countUnread(key) : 0;
+            unread.put(key, after);
+            cleared = before - after;
+        } finally {
+            lock.unlock();
+        }
+        if (cleared != 0) {
+            unreadCounters.addMessages(userId, -cleared);
+        }
+        messageHub.publish(conversationId, event("read", Map.of(
+                "conversationId", conversationId,
+                "userId", userId,
+                "upTo", pointer)));
+    }
+
+    private long latestMessageId(Long conversationId) {
+        ConcurrentSkipListMap<Long, Message> queued = pending.get(conversationId);
+        Map.Entry<Long, Message> newest = queued != null ? queued.lastEntry() : null;
+        if (newest != null) {
+            return newest.getKey();
+        }
+        return conversationRepository.findById(conversationId)
+                .map(Conversation::getLastMessageId)
+                .orElse(0L);
+    }
+
+    private ReentrantLock unreadLock(UnreadKey key) {
+        return unreadLocks[Math.floorMod(key.hashCode(), unreadLocks.length)];
+    }
+
+    private long countUnread(UnreadKey key) {
+        Conversation conversation = conversationRepository.findById(key.conversationId())
+                .orElseThrow(() -> new IllegalArgumentException("Conversation not found"));
+        long lastRead = conversation.lastReadId(key.userId());
+        List<Long> queued = new ArrayList<>();
+        ConcurrentSkipListMap<Long, Message> messages = pending.get(key.conversationId());
+        if (messages != null) {
+            for (Message message : messages.tailMap(lastRead, false).values()) {
+                if (!message.getSenderId().equals(key.userId())) {
+                    queued.add(message.getId());
+                }
+            }
+        }
+        // Pending messages are counted from memory and excluded from the query, in case they were just flushed
+        long stored = queued.isEmpty()
+                ? messageRepository.countByConversationIdAndIdGreaterThanAndSenderIdNot(
+                        key.conversationId(), lastRead, key.userId())
+                : messageRepository.countByConversationIdAndIdGreaterThanAndSenderIdNotAndIdNotIn(
+                        key.conversationId(), lastRead, key.userId(), queued);
+        return stored + queued.size();
+    }
+
+    private Participants participants(Long conversationId, Long userId) {
+        Participants conversation = participants.get(conversationId, id -> conversationRepository.findById(id)
+                .map(c -> new Participants(c.getRequesterId(), c.getTaskerId()))
+                .orElse(null));
+        if (conversation == null || !conversation.includes(userId)) {
+            throw new IllegalArgumentException("Conversation not found");
+        }
+        return conversation;
+    }
+
+    // Called again for the same batch after a failure; both statements are idempotent
+    private void persist(List<Message> batch) {
+        jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, message) -> {
+            ps.setLong(1, message.getId());
+            ps.setLong(2, message.getConversationId());
+            ps.setLong(3, message.getSenderId());
+            ps.setString(4, message.getContent());
+            ps.setTimestamp(5, Timestamp.valueOf(message.getCreatedAt()));
+        });
+        Map<Long, Message> latest = new HashMap<>();
+        for (Message message : batch) {
+            latest.merge(message.getConversationId(), message, (a, b) -> a.getId() > b.getId() ? a : b);
+        }
+        List<Message> updates = new ArrayList<>(latest.values());
+        jdbcTemplate.batchUpdate(UPDATE_LAST_MESSAGE, updates, updates.size(), (ps, message) -> {
+            ps.setLong(1, message.getId());
+            ps.setTimestamp(2, Timestamp.valueOf(message.getCreatedAt()));
+            ps.setLong(3, message.getConversationId());
+            ps.setLong(4, message.getId());
+        });
+        // Only once stored: until then history keeps serving them from memory
+        for (Message message : batch) {
+            pending.computeIfPresent(message.getConversationId(), (id, queued) -> {
+                queued.remove(message.getId());
+                return queued.isEmpty() ? null : queued;
+            });
+        }
+    }
+
+    private String event(String type, Object payload) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("type", type, type, payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
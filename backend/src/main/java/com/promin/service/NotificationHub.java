@@ -0,0 +1,204 @@
+package com.promin.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of open Server-Sent Events connections, keyed by user. Connections are async
+ * requests, so an idle one holds no thread. Each has a small bounded buffer drained by a shared
+ * sender pool: publishers never block on a slow client, and a client that falls a full buffer
+ * behind is disconnected and catches up from the database when it reconnects.
+ */
+@Component
+public class NotificationHub {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    @Value("${notifications.sse.timeout:PT1H}")
+    private Duration timeout;
+
+    @Value("${notifications.sse.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${notifications.sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${notifications.sse.sender-threads:4}")
+    private int senderThreads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private ExecutorService senders;
+    private Counter overflows;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("notifications.sse.connections", open, AtomicInteger::get).register(meterRegistry);
+        overflows = Counter.builder("notifications.sse.overflows").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connections.values().forEach(set -> set.forEach(Connection::close));
+        senders.shutdown();
+    }
+
+    public SseEmitter connect(Long userId) {
+        Connection connection = new Connection(userId, new SseEmitter(timeout.toMillis()));
+        // Added inside compute, so a closing connection's remove() cannot drop the set in between
+        Set<Connection> userConnections = connections.compute(userId, (id, set) -> {
+            Set<Connection> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(connection);
+            return target;
+        });
+        open.incrementAndGet();
+        // A user with many tabs keeps the newest connections
+        if (userConnections.size() > maxConnectionsPerUser) {
+            userConnections.stream()
+                    .min((a, b) -> Long.compare(a.openedAt, b.openedAt))
+                    .ifPresent(Connection::close);
+        }
+        SseEmitter emitter = connection.emitter;
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+        return emitter;
+    }
+
+    /**
+     * Queues an event for every open connection of the user.
+     */
+    public void publish(Long userId, String name, Long id, Object data) {
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(name).data(data);
+        if (id != null) {
+            builder.id(String.valueOf(id));
+        }
+        // Built once: a builder appends to itself on build() and must not be shared
+        Set<ResponseBodyEmitter.DataWithMediaType> event = builder.build();
+        for (Connection connection : userConnections) {
+            connection.offer(event);
+        }
+    }
+
+    /**
+     * Queues an event for a single connection, such as the catch-up sent when it opens.
+     */
+    public void sendTo(SseEmitter emitter, Long userId, SseEmitter.SseEventBuilder builder) {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = builder.build();
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections != null) {
+            for (Connection connection : userConnections) {
+                if (connection.emitter == emitter) {
+                    connection.offer(event);
+                }
+            }
+        }
+    }
+
+    // Keeps proxies and load balancers from closing idle connections, and detects dead clients
+    @Scheduled(fixedDelayString = "${notifications.sse.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        connections.values().forEach(set -> set.forEach(connection -> connection.offer(ping)));
+    }
+
+    public int connectionCount() {
+        return open.get();
+    }
+
+    private void remove(Connection connection) {
+        if (connection.closed.compareAndSet(false, true)) {
+            open.decrementAndGet();
+        }
+        connections.computeIfPresent(connection.userId, (id, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final long openedAt = System.nanoTime();
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                overflows.increment();
+                log.debug("SSE buffer full for user {}, disconnecting", userId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks remove the connection
+                remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // An event may have arrived between the last poll and releasing the flag
+            if (!buffer.isEmpty() && !closed.get() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void close() {
+            remove(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.promin.service;
+
+import com.promin.entity.Notification;
+import com.promin.entity.NotificationType;
+import com.promin.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Stores notifications and pushes them to the recipient's open SSE connections. The row is the
+ * source of truth: a client that was offline, or was dropped for falling behind, reads what it
+ * missed on reconnect via {@code Last-Event-ID}.
+ */
+@Service
+public class NotificationService {
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD = "unread";
+
+    @Value("${notifications.sse.replay-limit:100}")
+    private int replayLimit;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    public Notification notify(Long userId, NotificationType type, String title, String message,
+                               String resourceType, Long resourceId) {
+        Notification saved = notificationRepository.save(
+                new Notification(userId, type, title, message, resourceType, resourceId));
+        // Only count and push what was committed; inside a transaction, wait for it
+        Runnable push = () -> {
+            unreadCounters.addNotifications(userId, 1);
+            notificationHub.publish(userId, EVENT_NOTIFICATION, saved.getId(), saved);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push.run();
+                }
+            });
+        } else {
+            push.run();
+        }
+        return saved;
+    }
+
+    /**
+     * Opens a stream for the user. It starts with the unread count and, after a reconnect,
+     * the notifications created since {@code lastEventId}.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = notificationHub.connect(userId);
+        if (lastEventId != null) {
+            List<Notification> missed = withReadPointer(userId, notificationRepository
+                    .findByUserIdAndIdGreaterThanOrderByIdAsc(userId, lastEventId, PageRequest.of(0, replayLimit)));
+            for (Notification notification : missed) {
+                notificationHub.sendTo(emitter, userId, SseEmitter.event()
+                        .name(EVENT_NOTIFICATION)
+                        .id(String.valueOf(notification.getId()))
+                        .data(notification));
+            }
+        }
+        notificationHub.sendTo(emitter, userId, SseEmitter.event()
+                .name(EVENT_UNREAD)
+                .data(unreadCounters.get(userId)));
+        return emitter;
+    }
+
+    public Slice<Notification> list(Long userId, Pageable pageable) {
+        Slice<Notification> page = notificationRepository.findByUserIdOrderByIdDesc(userId, pageable);
+        withReadPointer(userId, page.getContent());
+        return page;
+    }
+
+    public UnreadCounters.Unread unreadCounts(Long userId) {
+        return unreadCounters.get(userId);
+    }
+
+    /**
+     * @return false if the user has no such notification
+     */
+    public boolean markRead(Long id, Long userId) {
+        if (!notificationRepository.existsByIdAndUserId(id, userId)) {
+            return false;
+        }
+        if (notificationRepository.markUnreadAsRead(id, userId, unreadCounters.notificationsReadUpto(userId)) > 0) {
+            unreadCounters.addNotifications(userId, -1);
+        }
+        return true;
+    }
+
+    /**
+     * Marks everything up to {@code upTo}, or up to the newest notification, as read by moving
+     * the user's read pointer; no notification row is updated.
+     */
+    public void markAllRead(Long userId, Long upTo) {
+        Long pointer = upTo != null ? upTo : notificationRepository.findMaxIdByUserId(userId);
+        if (pointer == null) {
+            return;
+        }
+        // Normally zero rows: only notifications created after the pointer was chosen
+        long remaining = notificationRepository.countByUserIdAndIdGreaterThanAndReadFalse(userId, pointer);
+        unreadCounters.markNotificationsReadUpTo(userId, pointer, remaining);
+    }
+
+    public boolean delete(Long id, Long userId) {
+        // Read first, so deleting an unread notification also takes it off the count
+        if (!markRead(id, userId)) {
+            return false;
+        }
+        return notificationRepository.deleteOwned(id, userId) > 0;
+    }
+
+    // Rows behind the read pointer are read even though their flag was never set
+    private List<Notification> withReadPointer(Long userId, List<Notification> notifications) {
+        long readUpto = unreadCounters.notificationsReadUpto(userId);
+        for (Notification notification : notifications) {
+            if (notification.getId() <= readUpto) {
+                notification.setRead(true);
+            }
+        }
+        return notifications;
+    }
+}
@@ -0,0 +1,151 @@
+package com.promin.service;
+
+import com.promin.entity.JobStatus;
+import com.promin.entity.Role;
+import com.promin.entity.UserStatus;
+import com.promin.repository.JobRepository;
+import com.promin.repository.PaymentTransactionRepository;
+import com.promin.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Platform-wide totals kept in memory and adjusted by the services on every write, so the
+ * admin dashboards never count whole tables. Reconciled against the database on a fixed delay
+ * ({@code counters.platform.reconcile-interval}) to absorb writes that bypass the services,
+ * such as cascaded deletes.
+ */
+@Component
+public class PlatformCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(PlatformCounters.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private PaymentTransactionRepository paymentTransactionRepository;
+
+    private final Map<Role, AtomicLong> usersByRole = counters(Role.class);
+    private final Map<UserStatus, AtomicLong> usersByStatus = counters(UserStatus.class);
+    private final Map<JobStatus, AtomicLong> jobsByStatus = counters(JobStatus.class);
+    private final AtomicReference<BigDecimal> platformRevenue = new AtomicReference<>(BigDecimal.ZERO);
+    private volatile boolean loaded;
+
+    public record Snapshot(Map<Role, Long> usersByRole,
+                           Map<UserStatus, Long> usersByStatus,
+                           Map<JobStatus, Long> jobsByStatus,
+                           BigDecimal platformRevenue) {
+
+        public long totalUsers() {
+            return usersByRole.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long totalJobs() {
+            return jobsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    public Snapshot snapshot() {
+        if (!loaded) {
+            reconcile();
+        }
+        return new Snapshot(read(usersByRole), read(usersByStatus), read(jobsByStatus), platformRevenue.get());
+    }
+
+    public void userCreated(Role role, UserStatus status) {
+        adjust(usersByRole, role, 1);
+        adjust(usersByStatus, status, 1);
+    }
+
+    public void userDeleted(Role role, UserStatus status) {
+        adjust(usersByRole, role, -1);
+        adjust(usersByStatus, status, -1);
+    }
+
+    public void userChanged(Role previousRole, UserStatus previousStatus, Role role, UserStatus status) {
+        if (previousRole != role) {
+            adjust(usersByRole, previousRole, -1);
+            adjust(usersByRole, role, 1);
+        }
+        if (previousStatus != status) {
+            adjust(usersByStatus, previousStatus, -1);
+            adjust(usersByStatus, status, 1);
+        }
+    }
+
+    public void jobCreated(JobStatus status) {
+        adjust(jobsByStatus, status, 1);
+    }
+
+    public void jobDeleted(JobStatus status) {
+        adjust(jobsByStatus, status, -1);
+    }
+
+    public void jobStatusChanged(JobStatus previous, JobStatus status) {
+        if (previous != status) {
+            adjust(jobsByStatus, previous, -1);
+            adjust(jobsByStatus, status, 1);
+        }
+    }
+
+    /**
+     * Replaces every counter with a fresh grouped count from the database. Writes that land
+     * while this runs may be applied twice or not at all until the next pass.
+     */
+    @Scheduled(fixedDelayString = "${counters.platform.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        reset(usersByRole, userRepository.countGroupedByRole());
+        reset(usersByStatus, userRepository.countGroupedByStatus());
+        reset(jobsByStatus, jobRepository.aggregateGroupedByStatus());
+        BigDecimal revenue = paymentTransactionRepository.getTotalPlatformRevenue();
+        platformRevenue.set(revenue != null ? revenue : BigDecimal.ZERO);
+        loaded = true;
+        log.debug("Platform counters reconciled");
+    }
+
+    private static <E extends Enum<E>> Map<E, AtomicLong> counters(Class<E> type) {
+        Map<E, AtomicLong> counters = new EnumMap<>(type);
+        for (E key : type.getEnumConstants()) {
+            counters.put(key, new AtomicLong());
+        }
+        return Collections.unmodifiableMap(counters);
+    }
+
+    private static <E extends Enum<E>> void adjust(Map<E, AtomicLong> counters, E key, long delta) {
+        if (key != null) {
+            counters.get(key).addAndGet(delta);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> void reset(Map<E, AtomicLong> counters, List<Object[]> rows) {
+        Map<E, Long> fresh = new HashMap<>();
+        for (Object[] row : rows) {
+            fresh.put((E) row[0], (Long) row[1]);
+        }
+        counters.forEach((key, counter) -> counter.set(fresh.getOrDefault(key, 0L)));
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> read(Map<E, AtomicLong> counters) {
+        Map<E, Long> values = new LinkedHashMap<>();
+        counters.forEach((key, counter) -> values.put(key, counter.get()));
+        return values;
+    }
+}
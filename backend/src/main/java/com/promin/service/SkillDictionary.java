@@ -0,0 +1,137 @@
+package com.promin.service;
+
+import com.promin.entity.Skill;
+import com.promin.repository.SkillRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory copy of the {@code skills} table. Skill names are interned to small integer ids
+ * when jobs are written; everything downstream stores, joins and indexes those ids, and names
+ * are only looked up again when a response is rendered. The dictionary is loaded at startup and
+ * only ever grows, so lookups never touch the database except for skills another instance added.
+ */
+@Component
+public class SkillDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillDictionary.class);
+
+    private static final int MAX_NAME_LENGTH = 100;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    private final ConcurrentMap<String, Integer> idsByName = new ConcurrentHashMap<>();
+    // Indexed by id. Ids have gaps, as INSERT IGNORE uses one up even when the skill exists, but
+    // only a name this instance has not seen is ever inserted, so they stay few
+    private volatile String[] names = new String[256];
+
+    @PostConstruct
+    void load() {
+        List<Skill> skills = skillRepository.findAll();
+        int maxId = skills.stream().mapToInt(Skill::getId).max().orElse(0);
+        names = new String[Math.max(maxId + 1, names.length)];
+        for (Skill skill : skills) {
+            register(skill);
+        }
+        log.info("Loaded {} skills", skills.size());
+    }
+
+    /**
+     * Ids for the given names, creating skills that don't exist yet. Blank names are skipped and
+     * names differing only in case or surrounding whitespace map to the same id.
+     */
+    public Set<Integer> intern(Collection<String> skillNames) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        if (skillNames != null) {
+            for (String name : skillNames) {
+                Integer id = intern(name);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    public Integer intern(String name) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            return null;
+        }
+        Integer id = idsByName.get(normalized);
+        if (id != null) {
+            return id;
+        }
+        String trimmed = name.trim();
+        if (trimmed.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Skill names are limited to " + MAX_NAME_LENGTH + " characters");
+        }
+        // Safe to race with other instances: the unique key keeps the first insert
+        skillRepository.insertIfAbsent(trimmed, normalized);
+        Skill skill = skillRepository.findByNormalizedName(normalized)
+                .orElseThrow(() -> new IllegalStateException("Skill " + normalized + " was not stored"));
+        register(skill);
+        return skill.getId();
+    }
+
+    /**
+     * The id of an existing skill, without creating it; for filters, where an unknown skill
+     * simply matches nothing.
+     */
+    public Integer find(String name) {
+        String normalized = normalize(name);
+        return normalized != null ? idsByName.get(normalized) : null;
+    }
+
+    public String name(int id) {
+        String[] current = names;
+        String name = id < current.length ? current[id] : null;
+        if (name == null) {
+            // Added by another instance since startup
+            name = skillRepository.findById(id).map(skill -> {
+                register(skill);
+                return skill.getName();
+            }).orElse(null);
+        }
+        return name;
+    }
+
+    public List<String> names(Collection<Integer> ids) {
+        List<String> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            String name = name(id);
+            if (name != null) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    private synchronized void register(Skill skill) {
+        int id = skill.getId();
+        String[] current = names;
+        if (id >= current.length) {
+            current = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+        }
+        if (current[id] == null) {
+            current[id] = skill.getName();
+        }
+        names = current;
+        idsByName.putIfAbsent(skill.getNormalizedName(), id);
+    }
+
+    static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
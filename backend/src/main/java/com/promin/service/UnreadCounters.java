@@ -0,0 +1,295 @@
+package com.promin.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Per-user unread totals for notifications and messages, so the navbar never counts rows.
+ * Users are spread over lock stripes; a user's entry is loaded on first use from the last
+ * checkpoint in {@code unread_counters}, changed by deltas from the write paths and written back
+ * every {@code counters.unread.checkpoint-interval}. An entry stays dirty, and so cannot be
+ * evicted, until a checkpoint holding its latest value has committed, so a reload from the table
+ * is always current.
+ * <p>
+ * Checkpoints written before this process started may be missing deltas lost in a crash, so they
+ * are not trusted: the first load after a restart counts the rows, and entries held in memory are
+ * recounted every {@code counters.unread.recount-interval} to correct any drift.
+ * <p>
+ * Notifications before the user's read pointer count as read, which makes mark-all-read a
+ * single-row update whatever the number of notifications.
+ */
+@Component
+public class UnreadCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadCounters.class);
+
+    private static final String LOAD = "SELECT notifications_read_upto, notifications_unread, messages_unread, " +
+            "checkpointed_at FROM unread_counters WHERE user_id = ?";
+
+    private static final String COUNT_NOTIFICATIONS = "SELECT COUNT(*) FROM notifications " +
+            "WHERE user_id = ? AND is_read = FALSE AND id > ?";
+
+    // One branch per side of the conversation, so each uses its own participant index
+    private static final String COUNT_MESSAGES = "SELECT " +
+            "(SELECT COUNT(*) FROM conversations c JOIN messages m ON m.conversation_id = c.id " +
+            "AND m.id > c.requester_last_read_id WHERE c.requester_id = ? AND m.sender_id <> ?) + " +
+            "(SELECT COUNT(*) FROM conversations c JOIN messages m ON m.conversation_id = c.id " +
+            "AND m.id > c.tasker_last_read_id WHERE c.tasker_id = ? AND m.sender_id <> ?)";
+
+    // Selected through users, so an entry for a user deleted meanwhile writes nothing instead of
+    // failing the foreign key and with it the whole batch
+    private static final String CHECKPOINT = "INSERT INTO unread_counters " +
+            "(user_id, notifications_unread, messages_unread, checkpointed_at) " +
+            "SELECT id, ?, ?, ? FROM users WHERE id = ? " +
+            "ON DUPLICATE KEY UPDATE notifications_unread = VALUES(notifications_unread), " +
+            "messages_unread = VALUES(messages_unread), checkpointed_at = VALUES(checkpointed_at)";
+
+    private static final String ADVANCE_POINTER = "INSERT INTO unread_counters (user_id, notifications_read_upto) " +
+            "VALUES (?, ?) ON DUPLICATE KEY UPDATE " +
+            "notifications_read_upto = GREATEST(notifications_read_upto, VALUES(notifications_read_upto))";
+
+    @Value("${counters.unread.stripes:64}")
+    private int stripeCount;
+
+    @Value("${counters.unread.max-entries-per-stripe:2000}")
+    private int maxEntriesPerStripe;
+
+    @Value("${counters.unread.recount-interval:PT6H}")
+    private Duration recountInterval;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    private Stripe[] stripes;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    public record Unread(long notifications, long messages) {}
+
+    private static final class Counts {
+        private long notificationsReadUpto;
+        private long notifications;
+        private long messages;
+        // Bumped on every change, so a checkpoint only cleans the entry if nothing changed since
+        private long version;
+        private long countedAt;
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Set<Long> dirty = new HashSet<>();
+        // Access order, evicting the least recently used entry that has been checkpointed
+        private final Map<Long, Counts> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Counts> eldest) {
+                return size() > maxEntriesPerStripe && !dirty.contains(eldest.getKey());
+            }
+        };
+    }
+
+    private record Change(Long userId, Counts counts, long notifications, long messages, long version) {}
+
+    @PostConstruct
+    void init() {
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        checkpoint();
+    }
+
+    public Unread get(Long userId) {
+        Stripe stripe = stripe(userId);
+        stripe.lock.lock();
+        try {
+            Counts counts = counts(stripe, userId);
+            return new Unread(counts.notifications, counts.messages);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public long notificationsReadUpto(Long userId) {
+        Stripe stripe = stripe(userId);
+        stripe.lock.lock();
+        try {
+            return counts(stripe, userId).notificationsReadUpto;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void addNotifications(Long userId, long delta) {
+        update(userId, counts -> counts.notifications = Math.max(0, counts.notifications + delta));
+    }
+
+    public void addMessages(Long userId, long delta) {
+        update(userId, counts -> counts.messages = Math.max(0, counts.messages + delta));
+    }
+
+    /**
+     * Moves the notification read pointer to {@code upTo}; {@code remaining} is the number of
+     * unread notifications newer than it.
+     */
+    public void markNotificationsReadUpTo(Long userId, long upTo, long remaining) {
+        jdbcTemplate.update(ADVANCE_POINTER, userId, upTo);
+        update(userId, counts -> {
+            counts.notificationsReadUpto = Math.max(counts.notificationsReadUpto, upTo);
+            counts.notifications = remaining;
+        });
+    }
+
+    /**
+     * Drops the entry of a deleted user, whose row went with the user through the cascade.
+     */
+    public void forget(Long userId) {
+        Stripe stripe = stripe(userId);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(userId);
+            stripe.dirty.remove(userId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${counters.unread.checkpoint-interval:PT30S}")
+    public void checkpoint() {
+        List<Change> changes = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                // Iterated rather than looked up, which would count as access and reorder the LRU
+                for (Map.Entry<Long, Counts> entry : stripe.entries.entrySet()) {
+                    if (stripe.dirty.contains(entry.getKey())) {
+                        Counts counts = entry.getValue();
+                        changes.add(new Change(entry.getKey(), counts, counts.notifications, counts.messages,
+                                counts.version));
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(CHECKPOINT, changes, changes.size(), (ps, change) -> {
+                ps.setLong(1, change.notifications());
+                ps.setLong(2, change.messages());
+                ps.setTimestamp(3, now);
+                ps.setLong(4, change.userId());
+            });
+        } catch (RuntimeException e) {
+            // Still dirty, so they are neither lost nor evicted; the next checkpoint tries again
+            log.warn("Failed to checkpoint {} unread counters", changes.size(), e);
+            return;
+        }
+        for (Change change : changes) {
+            Stripe stripe = stripe(change.userId());
+            stripe.lock.lock();
+            try {
+                // Dirty entries are never evicted, so this is still the entry in the map
+                if (change.counts().version == change.version()) {
+                    stripe.dirty.remove(change.userId());
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private void update(Long userId, Consumer<Counts> change) {
+        Stripe stripe = stripe(userId);
+        Unread unread;
+        stripe.lock.lock();
+        try {
+            Counts counts = counts(stripe, userId);
+            change.accept(counts);
+            counts.version++;
+            stripe.dirty.add(userId);
+            unread = new Unread(counts.notifications, counts.messages);
+        } finally {
+            stripe.lock.unlock();
+        }
+        notificationHub.publish(userId, NotificationService.EVENT_UNREAD, null, unread);
+    }
+
+    /**
+     * The user's entry, loaded under the stripe lock so no delta can slip in between the
+     * query and the entry becoming visible.
+     */
+    private Counts counts(Stripe stripe, Long userId) {
+        Counts counts = stripe.entries.get(userId);
+        if (counts == null) {
+            counts = load(stripe, userId);
+            stripe.entries.put(userId, counts);
+        } else if (System.nanoTime() - counts.countedAt > recountInterval.toNanos()) {
+            recount(stripe, userId, counts);
+        }
+        return counts;
+    }
+
+    private Counts load(Stripe stripe, Long userId) {
+        Counts counts = new Counts();
+        boolean current = jdbcTemplate.query(LOAD, rs -> {
+            if (!rs.next()) {
+                return false;
+            }
+            counts.notificationsReadUpto = rs.getLong(1);
+            counts.notifications = rs.getLong(2);
+            counts.messages = rs.getLong(3);
+            Timestamp checkpointedAt = rs.getTimestamp(4);
+            return checkpointedAt != null && !checkpointedAt.toLocalDateTime().isBefore(startedAt);
+        }, userId);
+        if (current) {
+            counts.countedAt = System.nanoTime();
+        } else {
+            recount(stripe, userId, counts);
+        }
+        return counts;
+    }
+
+    // Messages still in the write-behind queue are missed until the next recount
+    private void recount(Stripe stripe, Long userId, Counts counts) {
+        counts.notifications = jdbcTemplate.queryForObject(COUNT_NOTIFICATIONS, Long.class,
+                userId, counts.notificationsReadUpto);
+        counts.messages = jdbcTemplate.queryForObject(COUNT_MESSAGES, Long.class,
+                userId, userId, userId, userId);
+        counts.countedAt = System.nanoTime();
+        counts.version++;
+        // Checkpointed with the next batch, so the count is not repeated after an eviction
+        stripe.dirty.add(userId);
+    }
+
+    private Stripe stripe(Long userId) {
+        return stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+    }
+}
@@ -0,0 +1,70 @@
+package com.promin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.promin.repository.ApplicationRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user counters read by the dashboards. A user's counters are loaded with one aggregate
+ * query on first read and then kept current by the write paths; entries expire after
+ * {@code counters.user.ttl} so any drift (e.g. cascaded deletes) is bounded.
+ */
+@Service
+public class UserCounterService {
+
+    @Value("${counters.user.max-size:50000}")
+    private long maxSize;
+
+    @Value("${counters.user.ttl:10m}")
+    private Duration ttl;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    private Cache<Long, UserCounters> cache;
+
+    private static final class UserCounters {
+        private final AtomicLong receivedApplications;
+
+        private UserCounters(long receivedApplications) {
+            this.receivedApplications = new AtomicLong(receivedApplications);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Number of applications received across all of the requester's jobs.
+     */
+    public long receivedApplications(Long requesterId) {
+        return cache.get(requesterId, id -> new UserCounters(applicationRepository.countByJobRequesterId(id)))
+                .receivedApplications.get();
+    }
+
+    public void applicationReceived(Long requesterId) {
+        // Only adjust counters that are already loaded; otherwise the next read counts from the database
+        cache.asMap().computeIfPresent(requesterId, (id, counters) -> {
+            counters.receivedApplications.incrementAndGet();
+            return counters;
+        });
+    }
+
+    public void evict(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.promin.service;
 
+import com.promin.entity.Role;
+import com.promin.entity.RollupMetric;
 import com.promin.entity.User;
 import com.promin.entity.UserStatus;
+import com.promin.repository.AuditLogRepository;
 import com.promin.repository.UserRepository;
 import com.promin.repository.ReviewRepository;
 import com.promin.repository.JobRepository;
 import com.promin.repository.PaymentTransactionRepository;
+import com.promin.security.TokenRevocationList;
+import com.promin.security.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -33,11 +37,38 @@ public class UserService {
     private PaymentTransactionRepository paymentTransactionRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private PlatformCounters platformCounters;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private JobSearchIndex jobSearchIndex;
+
+    @Autowired
+    private JobRecommendationIndex jobRecommendationIndex;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
 
     public User createUser(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
+        User saved = userRepository.save(user);
+        platformCounters.userCreated(saved.getRole(), saved.getStatus());
+        analyticsService.record(RollupMetric.SIGNUPS);
+        return saved;
     }
 
     public Optional<User> getUserById(Long id) {
@@ -49,11 +80,36 @@ public class UserService {
     }
 
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.evict(saved.getEmail());
+        return saved;
+    }
+
+    /**
+     * Saves a change to the user's role or status and invalidates every token issued before it.
+     */
+    public User updateUserAccess(User user, Role previousRole, UserStatus previousStatus) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User saved = userRepository.save(user);
+        principalCache.evict(saved.getEmail());
+        tokenRevocationList.revoke(saved);
+        platformCounters.userChanged(previousRole, previousStatus, saved.getRole(), saved.getStatus());
+        return saved;
     }
 
     public void deleteUser(Long id) {
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(u -> principalCache.evict(u.getEmail()));
+        tokenRevocationList.block(id);
+        // Their jobs go with them through the cascade, so drop them from the indexes too
+        List<Long> jobIds = jobRepository.findIdsByRequesterId(id);
         userRepository.deleteById(id);
+        auditLogRepository.detachUser(id);
+        jobIds.forEach(jobSearchIndex::remove);
+        jobIds.forEach(jobRecommendationIndex::remove);
+        jobRecommendationIndex.evictProfile(id);
+        unreadCounters.forget(id);
+        user.ifPresent(u -> platformCounters.userDeleted(u.getRole(), u.getStatus()));
     }
 
     public Page<User> getAllUsers(Pageable pageable) {
@@ -100,8 +156,9 @@ public class UserService {
     public User updateUserStatus(Long userId, UserStatus status) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        UserStatus previousStatus = user.getStatus();
         user.setStatus(status);
-        return userRepository.save(user);
+        return updateUserAccess(user, user.getRole(), previousStatus);
     }
 
     public User updateLastLogin(Long userId) {
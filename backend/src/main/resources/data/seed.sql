@@ -19,8 +19,9 @@ INSERT INTO jobs (title, description, budget, deadline, location, status, reques
 ('Data Analysis', 'I have a dataset that needs analysis and visualization. Looking for someone with experience in Python, pandas, and matplotlib.', 600.00, DATE_ADD(NOW(), INTERVAL 10 DAY), 'Remote', 'IN_PROGRESS', 1),
 ('Video Editing', 'Need a video editor to create promotional videos for my business. I have raw footage that needs to be edited and polished.', 400.00, DATE_ADD(NOW(), INTERVAL 5 DAY), 'Remote', 'COMPLETED', 4);
 
--- Insert job skills
-INSERT INTO job_skills (job_id, skill) VALUES
+-- Insert job skills, interned into the skill dictionary
+CREATE TEMPORARY TABLE seed_job_skills (job_id BIGINT NOT NULL, skill VARCHAR(100) NOT NULL);
+INSERT INTO seed_job_skills (job_id, skill) VALUES
 (1, 'Web Development'),
 (1, 'UI/UX Design'),
 (1, 'Responsive Design'),
@@ -42,6 +43,14 @@ INSERT INTO job_skills (job_id, skill) VALUES
 (7, 'Adobe Premiere'),
 (7, 'Motion Graphics');
 
+INSERT IGNORE INTO skills (name, normalized_name)
+SELECT skill, LOWER(TRIM(skill)) FROM seed_job_skills;
+
+INSERT IGNORE INTO job_skills (job_id, skill_id)
+SELECT sj.job_id, s.id FROM seed_job_skills sj JOIN skills s ON s.normalized_name = LOWER(TRIM(sj.skill));
+
+DROP TEMPORARY TABLE seed_job_skills;
+
 -- Insert demo applications
 INSERT INTO applications (proposal, proposed_amount, proposed_deadline, status, job_id, tasker_id) VALUES
 ('I have 5+ years of experience in web design and development. I can create a modern, responsive website that will help your business stand out. I will deliver the project within 10 days.', 1200.00, DATE_ADD(NOW(), INTERVAL 10 DAY), 'PENDING', 1, 2),
@@ -0,0 +1,10 @@
+-- Per-user unread state. The notification pointer is written through on mark-all-read; the
+-- counts are checkpointed from memory and only trusted once checkpointed_at is set.
+CREATE TABLE unread_counters (
+    user_id BIGINT PRIMARY KEY,
+    notifications_read_upto BIGINT NOT NULL DEFAULT 0,
+    notifications_unread INT NOT NULL DEFAULT 0,
+    messages_unread INT NOT NULL DEFAULT 0,
+    checkpointed_at DATETIME NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,34 @@
+-- Each distinct skill is stored once and referenced by a small integer id. Skills are matched
+-- trimmed and lower-cased; name keeps the spelling of the oldest job using it.
+CREATE TABLE skills (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    normalized_name VARCHAR(100) NOT NULL,
+    UNIQUE KEY uk_skills_normalized_name (normalized_name)
+);
+
+INSERT INTO skills (name, normalized_name)
+SELECT name, normalized_name FROM (
+    SELECT TRIM(skill) AS name, LOWER(TRIM(skill)) AS normalized_name,
+           ROW_NUMBER() OVER (PARTITION BY LOWER(TRIM(skill)) ORDER BY job_id, TRIM(skill)) AS spelling
+    FROM job_skills
+    WHERE TRIM(skill) <> ''
+) spellings
+WHERE spelling = 1;
+
+-- Rebuilt rather than altered: spellings that differ only in case collapse into one row
+CREATE TABLE job_skill_ids (
+    job_id BIGINT NOT NULL,
+    skill_id INT NOT NULL,
+    PRIMARY KEY (job_id, skill_id),
+    FOREIGN KEY (job_id) REFERENCES jobs(id) ON DELETE CASCADE,
+    FOREIGN KEY (skill_id) REFERENCES skills(id)
+);
+
+INSERT IGNORE INTO job_skill_ids (job_id, skill_id)
+SELECT js.job_id, s.id FROM job_skills js JOIN skills s ON s.normalized_name = LOWER(TRIM(js.skill));
+
+DROP TABLE job_skills;
+RENAME TABLE job_skill_ids TO job_skills;
+
+CREATE INDEX idx_job_skills_skill ON job_skills(skill_id, job_id);
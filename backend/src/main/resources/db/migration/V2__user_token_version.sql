@@ -0,0 +1,2 @@
+-- Version counter embedded in issued tokens; bumped whenever a user's role or status changes
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
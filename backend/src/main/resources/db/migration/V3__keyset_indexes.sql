@@ -0,0 +1,5 @@
+-- Composite indexes backing keyset (cursor) pagination on (created_at, id)
+CREATE INDEX idx_jobs_created_id ON jobs(created_at, id);
+CREATE INDEX idx_jobs_status_created_id ON jobs(status, created_at, id);
+CREATE INDEX idx_users_created_id ON users(created_at, id);
+CREATE INDEX idx_applications_tasker_created_id ON applications(tasker_id, created_at, id);
@@ -0,0 +1,14 @@
+-- Pre-aggregated analytics: one row per (metric, granularity, bucket)
+CREATE TABLE metric_rollups (
+    metric VARCHAR(32) NOT NULL,
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    total DECIMAL(19,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (metric, granularity, bucket_start)
+);
+
+CREATE INDEX idx_metric_rollups_granularity_bucket ON metric_rollups(granularity, bucket_start);
+
+CREATE INDEX idx_jobs_completed_at ON jobs(completed_at);
+CREATE INDEX idx_applications_created_at ON applications(created_at);
+CREATE INDEX idx_payment_transactions_created_at ON payment_transactions(created_at);
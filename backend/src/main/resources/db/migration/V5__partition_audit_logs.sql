@@ -0,0 +1,40 @@
+-- Monthly range partitions for audit_logs. Partitioned tables cannot take part in foreign keys
+-- and every unique key must include the partitioning column, so the user FK is dropped and the
+-- primary key becomes (id, timestamp); UserService.deleteUser now clears user_id itself, as
+-- ON DELETE SET NULL did. Existing rows get one partition per month up to the current one;
+-- AuditPartitionService then creates the months ahead and drops expired ones.
+ALTER TABLE audit_logs DROP FOREIGN KEY audit_logs_ibfk_1;
+
+UPDATE audit_logs SET timestamp = CURRENT_TIMESTAMP WHERE timestamp IS NULL;
+
+ALTER TABLE audit_logs
+    MODIFY id BIGINT NOT NULL AUTO_INCREMENT,
+    MODIFY timestamp DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, timestamp);
+
+DROP INDEX idx_audit_logs_user ON audit_logs;
+DROP INDEX idx_audit_logs_action ON audit_logs;
+CREATE INDEX idx_audit_logs_user_timestamp ON audit_logs(user_id, timestamp);
+CREATE INDEX idx_audit_logs_action_timestamp ON audit_logs(action, timestamp);
+
+-- One partition per month from the oldest row, or just the current month for an empty table
+SET SESSION group_concat_max_len = 1048576;
+
+SET @partitions = (
+    WITH RECURSIVE months (month_start) AS (
+        SELECT CAST(DATE_FORMAT(COALESCE(MIN(timestamp), CURRENT_DATE), '%Y-%m-01') AS DATE) FROM audit_logs
+        UNION ALL
+        SELECT month_start + INTERVAL 1 MONTH FROM months WHERE month_start + INTERVAL 1 MONTH <= CURRENT_DATE
+    )
+    SELECT GROUP_CONCAT(CONCAT('PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                               ' VALUES LESS THAN (''', month_start + INTERVAL 1 MONTH, ''')')
+                        ORDER BY month_start SEPARATOR ', ')
+    FROM months
+);
+
+SET @partition_ddl = CONCAT('ALTER TABLE audit_logs PARTITION BY RANGE COLUMNS(timestamp) (',
+                            @partitions, ', PARTITION p_future VALUES LESS THAN (MAXVALUE))');
+PREPARE partition_audit_logs FROM @partition_ddl;
+EXECUTE partition_audit_logs;
+DEALLOCATE PREPARE partition_audit_logs;
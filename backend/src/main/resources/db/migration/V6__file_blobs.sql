@@ -0,0 +1,18 @@
+-- Each distinct upload is stored once, keyed by the SHA-256 of its content; file_resources rows
+-- reference their blob by hash (file_name). ref_count is the number of referencing rows and
+-- released_at is when it last dropped to zero, after which the blob may be collected.
+CREATE TABLE file_blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    released_at TIMESTAMP NULL
+);
+
+INSERT INTO file_blobs (hash, size, ref_count)
+SELECT file_name, MAX(file_size), COUNT(*) FROM file_resources GROUP BY file_name;
+
+ALTER TABLE file_resources
+    ADD CONSTRAINT fk_file_resources_blob FOREIGN KEY (file_name) REFERENCES file_blobs(hash);
+
+CREATE INDEX idx_file_blobs_released ON file_blobs(ref_count, released_at);
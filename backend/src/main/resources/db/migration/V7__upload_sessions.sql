@@ -0,0 +1,28 @@
+-- Resumable chunked uploads: a session preallocates a file of total_size bytes and each chunk
+-- is written at index * chunk_size. A row in upload_chunks records a fully written chunk.
+CREATE TABLE upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    job_id BIGINT NULL,
+    original_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    total_size BIGINT NOT NULL,
+    chunk_size INT NOT NULL,
+    chunk_count INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    file_id BIGINT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (job_id) REFERENCES jobs(id) ON DELETE CASCADE
+);
+
+CREATE TABLE upload_chunks (
+    session_id VARCHAR(36) NOT NULL,
+    chunk_index INT NOT NULL,
+    size INT NOT NULL,
+    PRIMARY KEY (session_id, chunk_index),
+    FOREIGN KEY (session_id) REFERENCES upload_sessions(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_upload_sessions_expires ON upload_sessions(expires_at);
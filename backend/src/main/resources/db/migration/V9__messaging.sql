@@ -0,0 +1,31 @@
+-- One conversation per job and tasker; read pointers are the id of the last message each side has seen
+CREATE TABLE conversations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id BIGINT NOT NULL,
+    requester_id BIGINT NOT NULL,
+    tasker_id BIGINT NOT NULL,
+    last_message_id BIGINT NULL,
+    last_message_at DATETIME(3) NULL,
+    requester_last_read_id BIGINT NOT NULL DEFAULT 0,
+    tasker_last_read_id BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_conversations_job_tasker (job_id, tasker_id),
+    FOREIGN KEY (job_id) REFERENCES jobs(id) ON DELETE CASCADE,
+    FOREIGN KEY (requester_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (tasker_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_conversations_requester ON conversations(requester_id, last_message_at);
+CREATE INDEX idx_conversations_tasker ON conversations(tasker_id, last_message_at);
+
+-- Ids are assigned by the application and increase with time, so history is paged by id alone
+CREATE TABLE messages (
+    id BIGINT PRIMARY KEY,
+    conversation_id BIGINT NOT NULL,
+    sender_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    created_at DATETIME(3) NOT NULL,
+    FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_messages_conversation ON messages(conversation_id, id);
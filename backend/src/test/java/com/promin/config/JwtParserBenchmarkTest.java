@@ -0,0 +1,93 @@
+package com.promin.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Times {@link JwtUtil#parse}: verifying with the parser built once in {@code init()}, against
+ * deriving the key and building a parser on every call as it used to, and against a hit in the
+ * verified-token cache. Timing-based, so it only runs when asked:
+ * {@code mvn test -Dtest=JwtParserBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtParserBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtParserBenchmarkTest.class);
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void prebuiltParserIsFaster() {
+        // Passes every token straight to the verifier, so each parse goes through the signature check
+        JwtUtil verifying = jwtUtil(new VerifiedTokenCache() {
+            @Override
+            public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+                return verifier.apply(token);
+            }
+        });
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 1_000L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", new SimpleMeterRegistry());
+        verifiedTokenCache.init();
+        JwtUtil caching = jwtUtil(verifiedTokenCache);
+        String token = verifying.generateToken("benchmark@promin.local", "TASKER");
+
+        Consumer<String> perCall = t -> Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(t);
+        Consumer<String> prebuilt = verifying::parse;
+        Consumer<String> cached = caching::parse;
+
+        long perCallNanos = Long.MAX_VALUE;
+        long prebuiltNanos = Long.MAX_VALUE;
+        long cachedNanos = Long.MAX_VALUE;
+        run(perCall, token, WARMUP_ITERATIONS);
+        run(prebuilt, token, WARMUP_ITERATIONS);
+        run(cached, token, WARMUP_ITERATIONS);
+        // Best of several rounds, alternating, so no side is favoured by GC or JIT timing
+        for (int round = 0; round < ROUNDS; round++) {
+            perCallNanos = Math.min(perCallNanos, run(perCall, token, MEASURED_ITERATIONS));
+            prebuiltNanos = Math.min(prebuiltNanos, run(prebuilt, token, MEASURED_ITERATIONS));
+            cachedNanos = Math.min(cachedNanos, run(cached, token, MEASURED_ITERATIONS));
+        }
+
+        log.info("JWT parse: parser per call {} ns/op, prebuilt parser {} ns/op ({}x), cache hit {} ns/op",
+                perCallNanos / MEASURED_ITERATIONS, prebuiltNanos / MEASURED_ITERATIONS,
+                String.format("%.2f", (double) perCallNanos / prebuiltNanos), cachedNanos / MEASURED_ITERATIONS);
+        assertThat(prebuiltNanos).isLessThan(perCallNanos);
+        assertThat(cachedNanos).isLessThan(prebuiltNanos);
+    }
+
+    private static JwtUtil jwtUtil(VerifiedTokenCache verifiedTokenCache) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCache", verifiedTokenCache);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private static long run(Consumer<String> parse, String token, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            parse.accept(token);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,45 @@
+package com.promin.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationListTest {
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "expiration", 86_400_000L);
+    }
+
+    @Test
+    void blockedUserIsRevokedWhateverTheVersion() {
+        revocationList.block(1L);
+
+        assertThat(revocationList.isRevoked(1L, 0)).isTrue();
+        assertThat(revocationList.isRevoked(1L, 1_000)).isTrue();
+        assertThat(revocationList.isRevoked(2L, 0)).isFalse();
+    }
+
+    @Test
+    void pruneKeepsEntriesYoungerThanTheTokenLifetime() {
+        revocationList.block(1L);
+        revocationList.prune();
+
+        assertThat(revocationList.isRevoked(1L, 0)).isTrue();
+    }
+
+    @Test
+    void pruneDropsEntriesOnceTheirTokensExpired() {
+        revocationList.block(1L);
+        // Every entry is then older than the lifetime
+        ReflectionTestUtils.setField(revocationList, "expiration", -1_000L);
+        revocationList.prune();
+
+        assertThat(revocationList.isRevoked(1L, 0)).isFalse();
+    }
+}
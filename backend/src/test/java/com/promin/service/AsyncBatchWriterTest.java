@@ -0,0 +1,155 @@
+package com.promin.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncBatchWriterTest {
+
+    // Longer than any test; with batches larger than the queue the background thread then never
+    // wakes on its own and the queue only drains on close()
+    private static final Duration IDLE = Duration.ofHours(1);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    private AsyncBatchWriter<Integer> writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void dropNewestRejectsItemsOverCapacity() {
+        writer = writer(AsyncBatchWriter.OverflowPolicy.DROP_NEWEST, batches::add);
+
+        assertThat(submitAll(1, 2, 3)).containsExactly(true, true, true);
+        assertThat(writer.submit(4)).isFalse();
+        writer.close();
+
+        assertThat(written()).containsExactly(1, 2, 3);
+        assertThat(dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void dropOldestMakesRoomForNewItems() {
+        writer = writer(AsyncBatchWriter.OverflowPolicy.DROP_OLDEST, batches::add);
+
+        submitAll(1, 2, 3);
+        assertThat(writer.submit(4)).isTrue();
+        assertThat(writer.size()).isEqualTo(3);
+        writer.close();
+
+        assertThat(written()).containsExactly(2, 3, 4);
+        assertThat(dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void callerWritesOverflowOnItsOwnThread() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        writer = writer(AsyncBatchWriter.OverflowPolicy.CALLER_WRITES, batch -> {
+            threads.add(Thread.currentThread().getName());
+            batches.add(batch);
+        });
+
+        submitAll(1, 2, 3);
+        assertThat(writer.submit(4)).isTrue();
+
+        assertThat(batches).containsExactly(List.of(4));
+        assertThat(threads).containsExactly(Thread.currentThread().getName());
+        assertThat(writer.size()).isEqualTo(3);
+    }
+
+    @Test
+    void closeDrainsEverythingInBatches() {
+        writer = new AsyncBatchWriter<>("test", 10, 4, IDLE, AsyncBatchWriter.OverflowPolicy.DROP_NEWEST,
+                batches::add, meterRegistry);
+        for (int i = 1; i <= 10; i++) {
+            writer.submit(i);
+        }
+        writer.close();
+
+        assertThat(written()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(4));
+        assertThat(writer.size()).isZero();
+    }
+
+    @Test
+    void submitAfterCloseWritesImmediately() {
+        writer = writer(AsyncBatchWriter.OverflowPolicy.DROP_NEWEST, batches::add);
+        writer.close();
+
+        assertThat(writer.submit(1)).isTrue();
+        assertThat(batches).containsExactly(List.of(1));
+    }
+
+    @Test
+    void failedBatchIsDroppedWithoutRetryBackoff() {
+        writer = writer(AsyncBatchWriter.OverflowPolicy.DROP_NEWEST, batch -> {
+            throw new IllegalStateException("down");
+        });
+
+        submitAll(1, 2);
+        writer.close();
+
+        assertThat(dropped()).isEqualTo(2);
+    }
+
+    @Test
+    void failedBatchIsRetriedWithRetryBackoff() {
+        AtomicInteger failures = new AtomicInteger(2);
+        writer = new AsyncBatchWriter<>("test", 3, 4, IDLE, AsyncBatchWriter.OverflowPolicy.DROP_NEWEST, batch -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("down");
+            }
+            batches.add(batch);
+        }, meterRegistry, Duration.ofMillis(200));
+
+        submitAll(1, 2);
+        writer.close();
+
+        assertThat(written()).containsExactly(1, 2);
+        assertThat(dropped()).isZero();
+        assertThat(meterRegistry.counter("batch.writer.retries", "writer", "test").count()).isEqualTo(2);
+    }
+
+    @Test
+    void closeGivesUpOnABatchThatKeepsFailing() {
+        writer = new AsyncBatchWriter<>("test", 3, 4, IDLE, AsyncBatchWriter.OverflowPolicy.DROP_NEWEST, batch -> {
+            throw new IllegalStateException("down");
+        }, meterRegistry, Duration.ofMillis(200));
+
+        submitAll(1, 2);
+        writer.close();
+
+        assertThat(dropped()).isEqualTo(2);
+    }
+
+    private AsyncBatchWriter<Integer> writer(AsyncBatchWriter.OverflowPolicy policy, Consumer<List<Integer>> sink) {
+        return new AsyncBatchWriter<>("test", 3, 4, IDLE, policy, sink, meterRegistry);
+    }
+
+    private List<Boolean> submitAll(Integer... items) {
+        return Arrays.stream(items).map(writer::submit).toList();
+    }
+
+    private List<Integer> written() {
+        return batches.stream().flatMap(List::stream).toList();
+    }
+
+    private double dropped() {
+        return meterRegistry.counter("batch.writer.dropped", "writer", "test").count();
+    }
+}
@@ -0,0 +1,145 @@
+package com.promin.service;
+
+import com.promin.entity.UploadSession;
+import com.promin.entity.UploadStatus;
+import com.promin.repository.JobRepository;
+import com.promin.repository.UploadSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChunkedUploadServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    @TempDir
+    Path tempDir;
+
+    private UploadSessionRepository uploadSessionRepository;
+    private ChunkedUploadService service;
+    private UploadSession session;
+
+    @BeforeEach
+    void setUp() {
+        uploadSessionRepository = mock(UploadSessionRepository.class);
+        FileStorageService fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.tempDir()).thenReturn(tempDir);
+        when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service = new ChunkedUploadService();
+        ReflectionTestUtils.setField(service, "chunkSize", DataSize.ofBytes(4));
+        ReflectionTestUtils.setField(service, "maxSize", DataSize.ofBytes(16));
+        ReflectionTestUtils.setField(service, "sessionTtl", Duration.ofDays(1));
+        ReflectionTestUtils.setField(service, "uploadSessionRepository", uploadSessionRepository);
+        ReflectionTestUtils.setField(service, "fileStorageService", fileStorageService);
+        ReflectionTestUtils.setField(service, "jobRepository", mock(JobRepository.class));
+
+        // Chunks of 4, 4 and 2 bytes
+        session = service.start(USER_ID, null, "notes.txt", "text/plain", 10);
+        when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+    }
+
+    @Test
+    void startPreallocatesTheFile() throws IOException {
+        assertThat(session.getChunkCount()).isEqualTo(3);
+        assertThat(Files.size(part())).isEqualTo(10);
+    }
+
+    @Test
+    void startRejectsSizesOutOfRange() {
+        assertThatThrownBy(() -> service.start(USER_ID, null, "empty", null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.start(USER_ID, null, "huge", null, 17))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void chunksAreWrittenAtTheirOffsetInAnyOrder() throws IOException {
+        service.writeChunk(session.getId(), USER_ID, 2, body("ij"));
+        service.writeChunk(session.getId(), USER_ID, 0, body("abcd"));
+        service.writeChunk(session.getId(), USER_ID, 1, body("efgh"));
+
+        assertThat(Files.readString(part(), StandardCharsets.US_ASCII)).isEqualTo("abcdefghij");
+        verify(uploadSessionRepository).markChunkReceived(session.getId(), 0, 4);
+        verify(uploadSessionRepository).markChunkReceived(session.getId(), 1, 4);
+        verify(uploadSessionRepository).markChunkReceived(session.getId(), 2, 2);
+    }
+
+    @Test
+    void shortChunkIsRejectedAndNotRecorded() {
+        assertThatThrownBy(() -> service.writeChunk(session.getId(), USER_ID, 0, body("abc")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("must be 4 bytes");
+        verify(uploadSessionRepository, never()).markChunkReceived(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void longChunkIsRejectedWithoutWritingPastItsRegion() throws IOException {
+        assertThatThrownBy(() -> service.writeChunk(session.getId(), USER_ID, 0, body("abcdE")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("must be 4 bytes");
+        verify(uploadSessionRepository, never()).markChunkReceived(anyString(), anyInt(), anyInt());
+
+        byte[] content = Files.readAllBytes(part());
+        assertThat(content[4]).isZero();
+    }
+
+    @Test
+    void lastChunkMustMatchItsShorterLength() {
+        assertThatThrownBy(() -> service.writeChunk(session.getId(), USER_ID, 2, body("ijkl")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("must be 2 bytes");
+    }
+
+    @Test
+    void chunkIndexOutOfRangeIsRejected() {
+        assertThatThrownBy(() -> service.writeChunk(session.getId(), USER_ID, 3, body("ab")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.writeChunk(session.getId(), USER_ID, -1, body("ab")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void chunksAreRejectedOnceCompleting() {
+        session.setStatus(UploadStatus.COMPLETING);
+
+        assertThatThrownBy(() -> service.writeChunk(session.getId(), USER_ID, 0, body("abcd")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void otherUsersCannotWriteChunks() {
+        assertThatThrownBy(() -> service.writeChunk(session.getId(), USER_ID + 1, 0, body("abcd")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Upload not found");
+    }
+
+    private Path part() {
+        return tempDir.resolve("chunked-" + session.getId() + ".part");
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+}
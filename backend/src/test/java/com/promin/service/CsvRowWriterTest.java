@@ -0,0 +1,40 @@
+package com.promin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRowWriterTest {
+
+    @Test
+    void plainValuesAreWrittenAsIs() throws IOException {
+        assertThat(line("alice", 42L, new BigDecimal("1E+3"), null)).isEqualTo("alice,42,1000,\r\n");
+    }
+
+    @Test
+    void separatorsAndQuotesAreQuoted() throws IOException {
+        assertThat(line("a,b", "say \"hi\"", "two\nlines"))
+                .isEqualTo("\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\"\r\n");
+    }
+
+    @Test
+    void formulasAreNeutralized() throws IOException {
+        assertThat(line("=HYPERLINK(\"x\")", "+1", "-1", "@SUM(A1)", "\tcmd", "\rcmd"))
+                .isEqualTo("\"'=HYPERLINK(\"\"x\"\")\",\"'+1\",\"'-1\",\"'@SUM(A1)\",\"'\tcmd\",\"'\rcmd\"\r\n");
+    }
+
+    @Test
+    void negativeNumbersAreLeftAlone() throws IOException {
+        assertThat(line(-5L, new BigDecimal("-2.50"))).isEqualTo("-5,-2.50\r\n");
+    }
+
+    private static String line(Object... values) throws IOException {
+        StringWriter out = new StringWriter();
+        new ExportService.CsvRowWriter(out).row(new String[values.length], values);
+        return out.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.promin.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageIdGeneratorTest {
+
+    private static final int SEQUENCE_BITS = 8;
+    private static final int NODE_BITS = 4;
+
+    private MessageIdGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new MessageIdGenerator();
+        ReflectionTestUtils.setField(generator, "nodeId", 5L);
+        generator.init();
+    }
+
+    @Test
+    void idsIncreaseStrictly() {
+        // Far more than 256 per millisecond, so the sequence wraps several times
+        long previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsCarryTimeAndNode() {
+        long before = System.currentTimeMillis() - MessageIdGenerator.EPOCH;
+        long id = generator.nextId();
+        long after = System.currentTimeMillis() - MessageIdGenerator.EPOCH;
+
+        assertThat(id >>> (NODE_BITS + SEQUENCE_BITS)).isBetween(before, after);
+        assertThat((id >>> SEQUENCE_BITS) & ((1 << NODE_BITS) - 1)).isEqualTo(5);
+        // Survives a round trip through a JavaScript number
+        assertThat(id).isLessThan(1L << 53);
+    }
+
+    @Test
+    void exhaustedSequenceBorrowsTheNextMillisecond() {
+        long millis = System.currentTimeMillis() - MessageIdGenerator.EPOCH + 60_000;
+        ReflectionTestUtils.setField(generator, "lastMillis", millis);
+        ReflectionTestUtils.setField(generator, "sequence", 254L);
+
+        long last = generator.nextId();
+        long rolledOver = generator.nextId();
+
+        assertThat(last >>> (NODE_BITS + SEQUENCE_BITS)).isEqualTo(millis);
+        assertThat(last & 0xFF).isEqualTo(255);
+        assertThat(rolledOver >>> (NODE_BITS + SEQUENCE_BITS)).isEqualTo(millis + 1);
+        assertThat(rolledOver & 0xFF).isZero();
+        assertThat(rolledOver).isGreaterThan(last);
+    }
+
+    @Test
+    void clockGoingBackwardsKeepsOrder() {
+        long millis = System.currentTimeMillis() - MessageIdGenerator.EPOCH + 60_000;
+        ReflectionTestUtils.setField(generator, "lastMillis", millis);
+        ReflectionTestUtils.setField(generator, "sequence", 0L);
+
+        assertThat(generator.nextId() >>> (NODE_BITS + SEQUENCE_BITS)).isEqualTo(millis);
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        MessageIdGenerator invalid = new MessageIdGenerator();
+        ReflectionTestUtils.setField(invalid, "nodeId", 16L);
+
+        assertThatThrownBy(invalid::init).isInstanceOf(IllegalStateException.class);
+    }
+}
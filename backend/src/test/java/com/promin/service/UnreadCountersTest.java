@@ -0,0 +1,218 @@
+package com.promin.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadCountersTest {
+
+    private FakeJdbcTemplate jdbcTemplate;
+    private UnreadCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new FakeJdbcTemplate();
+        counters = new UnreadCounters();
+        // One small stripe, so eviction is easy to reach
+        ReflectionTestUtils.setField(counters, "stripeCount", 1);
+        ReflectionTestUtils.setField(counters, "maxEntriesPerStripe", 2);
+        ReflectionTestUtils.setField(counters, "recountInterval", Duration.ofHours(6));
+        ReflectionTestUtils.setField(counters, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(counters, "notificationHub", mock(NotificationHub.class));
+        counters.init();
+    }
+
+    @Test
+    void firstLoadCountsRows() {
+        assertThat(counters.get(1L)).isEqualTo(new UnreadCounters.Unread(3, 2));
+        assertThat(jdbcTemplate.loads).containsEntry(1L, 1);
+    }
+
+    @Test
+    void checkpointWritesChangedEntriesOnce() {
+        counters.addNotifications(1L, 2);
+
+        counters.checkpoint();
+        counters.checkpoint();
+
+        assertThat(jdbcTemplate.checkpointed).containsExactly(List.of(1L, 5L, 2L));
+    }
+
+    @Test
+    void failedCheckpointIsRetried() {
+        counters.addMessages(1L, 1);
+        jdbcTemplate.failure = new IllegalStateException("down");
+        counters.checkpoint();
+        jdbcTemplate.failure = null;
+        counters.checkpoint();
+
+        assertThat(jdbcTemplate.checkpointed).containsExactly(List.of(1L, 3L, 3L));
+    }
+
+    @Test
+    void changeDuringCheckpointStaysDirty() {
+        counters.get(1L);
+        jdbcTemplate.duringCheckpoint = () -> counters.addNotifications(1L, 1);
+        counters.checkpoint();
+        jdbcTemplate.duringCheckpoint = null;
+        counters.checkpoint();
+
+        assertThat(jdbcTemplate.checkpointed).containsExactly(List.of(1L, 3L, 2L), List.of(1L, 4L, 2L));
+    }
+
+    @Test
+    void dirtyEntriesAreNotEvicted() {
+        counters.get(1L);
+        counters.get(2L);
+        counters.get(3L);
+        counters.get(1L);
+        counters.get(2L);
+
+        assertThat(jdbcTemplate.loads).containsEntry(1L, 1).containsEntry(2L, 1).containsEntry(3L, 1);
+    }
+
+    @Test
+    void checkpointedEntriesAreEvictedLeastRecentlyUsedFirst() {
+        counters.get(1L);
+        counters.get(2L);
+        counters.get(1L);
+        counters.checkpoint();
+
+        counters.get(3L);
+        counters.get(1L);
+        counters.get(2L);
+
+        // 2 was the least recently used once 3 arrived; 1 stayed
+        assertThat(jdbcTemplate.loads).containsEntry(1L, 1).containsEntry(2L, 2);
+    }
+
+    @Test
+    void evictedEntryReloadsItsCheckpoint() {
+        counters.addNotifications(1L, 2);
+        counters.checkpoint();
+        counters.get(2L);
+        counters.get(3L);
+        counters.checkpoint();
+        counters.get(4L);
+
+        jdbcTemplate.checkpointedRow = new long[]{0, 5, 2};
+        assertThat(counters.get(1L)).isEqualTo(new UnreadCounters.Unread(5, 2));
+        assertThat(jdbcTemplate.loads).containsEntry(1L, 2);
+    }
+
+    @Test
+    void forgottenEntryIsNotCheckpointed() {
+        counters.addNotifications(1L, 2);
+        counters.forget(1L);
+        counters.checkpoint();
+
+        assertThat(jdbcTemplate.checkpointed).isEmpty();
+        counters.get(1L);
+        assertThat(jdbcTemplate.loads).containsEntry(1L, 2);
+    }
+
+    @Test
+    void deletedUserDoesNotKeepOthersDirty() {
+        counters.addNotifications(1L, 1);
+        counters.addNotifications(2L, 1);
+        jdbcTemplate.deletedUsers.add(1L);
+        counters.checkpoint();
+        counters.checkpoint();
+
+        assertThat(jdbcTemplate.checkpointed).containsExactly(List.of(2L, 4L, 2L));
+        // Both clean, so the oldest can make room
+        counters.get(3L);
+        counters.get(1L);
+        assertThat(jdbcTemplate.loads).containsEntry(1L, 2);
+    }
+
+    /**
+     * Answers the counter queries from fields: a user has 3 unread notifications and 2 unread
+     * messages, and no checkpoint unless {@link #checkpointedRow} is set.
+     */
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+
+        final Map<Long, Integer> loads = new HashMap<>();
+        final List<List<Long>> checkpointed = new ArrayList<>();
+        // Written as nothing, as the insert selects the user row
+        final Set<Long> deletedUsers = new HashSet<>();
+        long[] checkpointedRow;
+        RuntimeException failure;
+        Runnable duringCheckpoint;
+
+        @Override
+        public <T> T query(String sql, ResultSetExtractor<T> rse, Object... args) {
+            loads.merge((Long) args[0], 1, Integer::sum);
+            try {
+                ResultSet rs = mock(ResultSet.class);
+                if (checkpointedRow != null) {
+                    when(rs.next()).thenReturn(true);
+                    when(rs.getLong(1)).thenReturn(checkpointedRow[0]);
+                    when(rs.getLong(2)).thenReturn(checkpointedRow[1]);
+                    when(rs.getLong(3)).thenReturn(checkpointedRow[2]);
+                    when(rs.getTimestamp(4)).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+                }
+                return rse.extractData(rs);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            return requiredType.cast(sql.contains("FROM notifications") ? 3L : 2L);
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            if (duringCheckpoint != null) {
+                duringCheckpoint.run();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            for (T args : batchArgs) {
+                PreparedStatement ps = mock(PreparedStatement.class);
+                ArgumentCaptor<Long> values = ArgumentCaptor.forClass(Long.class);
+                try {
+                    pss.setValues(ps, args);
+                    verify(ps, times(3)).setLong(anyInt(), values.capture());
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                // Bound as notifications, messages, user id; recorded with the user id first
+                List<Long> row = values.getAllValues();
+                if (!deletedUsers.contains(row.get(2))) {
+                    checkpointed.add(List.of(row.get(2), row.get(0), row.get(1)));
+                }
+            }
+            return new int[0][];
+        }
+    }
+}
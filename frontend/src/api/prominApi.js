@@ -40,6 +40,20 @@ api.interceptors.response.use(
   }
 )
 
+// Avatars are stored as paths under the API; size picks a pre-rendered square thumbnail
+export const avatarUrl = (avatar, size) => {
+  if (!avatar || !avatar.startsWith('/public/')) return avatar
+  return `${API_BASE_URL}${avatar}${size ? `?size=${size}` : ''}`
+}
+
+// EventSource can't send headers, so the notification stream takes the token as a query parameter
+export const notificationStreamUrl = (token) =>
+  `${API_BASE_URL}/notifications/stream?token=${encodeURIComponent(token)}`
+
+// Chat socket; like EventSource, the browser WebSocket API can't send an Authorization header
+export const messageSocketUrl = (token) =>
+  `${API_BASE_URL.replace(/^http/, 'ws')}/ws/messages?token=${encodeURIComponent(token)}`
+
 // API endpoints
 export const prominApi = {
   // Auth endpoints
@@ -74,6 +88,7 @@ export const prominApi = {
     update: (id, data) => api.put(`/jobs/${id}`, data),
     delete: (id) => api.delete(`/jobs/${id}`),
     search: (params) => api.get('/jobs/search', { params }),
+    recommended: (params) => api.get('/jobs/recommended', { params }),
     apply: (id, data) => api.post(`/jobs/${id}/apply`, data),
     acceptApplication: (jobId, applicationId) => api.post(`/jobs/${jobId}/applications/${applicationId}/accept`),
     rejectApplication: (jobId, applicationId) => api.post(`/jobs/${jobId}/applications/${applicationId}/reject`),
@@ -101,6 +116,14 @@ export const prominApi = {
     },
     download: (id) => api.get(`/files/${id}/download`, { responseType: 'blob' }),
     delete: (id) => api.delete(`/files/${id}`),
+    // Chunked uploads for files above the multipart limit
+    startUpload: (data) => api.post('/files/uploads', data),
+    getUpload: (uploadId) => api.get(`/files/uploads/${uploadId}`),
+    uploadChunk: (uploadId, index, blob) => api.put(`/files/uploads/${uploadId}/chunks/${index}`, blob, {
+      headers: { 'Content-Type': 'application/octet-stream' }
+    }),
+    completeUpload: (uploadId) => api.post(`/files/uploads/${uploadId}/complete`),
+    abortUpload: (uploadId) => api.delete(`/files/uploads/${uploadId}`),
   },
 
   // Admin endpoints
@@ -127,16 +150,17 @@ export const prominApi = {
   // Message endpoints
   messages: {
     getConversations: () => api.get('/messages'),
-    getMessages: (conversationId) => api.get(`/messages/${conversationId}`),
+    getMessages: (conversationId, params) => api.get(`/messages/${conversationId}`, { params }),
     sendMessage: (data) => api.post('/messages', data),
-    markAsRead: (messageId) => api.put(`/messages/${messageId}/read`),
+    markAsRead: (conversationId, upTo) => api.put(`/messages/${conversationId}/read`, upTo ? { upTo } : {}),
   },
 
   // Notification endpoints
   notifications: {
     getAll: () => api.get('/notifications'),
     markAsRead: (id) => api.put(`/notifications/${id}/read`),
-    markAllAsRead: () => api.put('/notifications/read-all'),
+    markAllAsRead: (upTo) => api.put('/notifications/read-all', upTo ? { upTo } : {}),
+    getUnreadCount: () => api.get('/notifications/unread-count'),
     delete: (id) => api.delete(`/notifications/${id}`),
   },
 }
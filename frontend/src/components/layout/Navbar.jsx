@@ -1,6 +1,8 @@
 import { useState } from 'react'
 import { Link, useNavigate, useLocation } from 'react-router-dom'
 import { useAuth } from '../../context/ProminAuthContext'
+import { avatarUrl } from '../../api/prominApi'
+import { useNotificationStream } from '../../utils/useProminFetch'
 import { 
   Menu, 
   X, 
@@ -16,6 +18,7 @@ const Navbar = () => {
   const [isMenuOpen, setIsMenuOpen] = useState(false)
   const [isProfileOpen, setIsProfileOpen] = useState(false)
   const { user, logout } = useAuth()
+  const { unreadCount } = useNotificationStream(!!user)
   const navigate = useNavigate()
   const location = useLocation()
 
@@ -104,7 +107,9 @@ const Navbar = () => {
                 {/* Notifications */}
                 <button className="p-2 text-gray-400 hover:text-gray-600 relative">
                   <Bell className="w-5 h-5" />
-                  <span className="absolute -top-1 -right-1 w-3 h-3 bg-error-500 rounded-full"></span>
+                  {unreadCount > 0 && (
+                    <span className="absolute -top-1 -right-1 w-3 h-3 bg-error-500 rounded-full"></span>
+                  )}
                 </button>
 
                 {/* Quick Actions */}
@@ -125,9 +130,19 @@ const Navbar = () => {
                     className="flex items-center space-x-2 p-2 rounded-lg hover:bg-gray-50"
                   >
                     <div className="w-8 h-8 bg-primary-100 rounded-full flex items-center justify-center">
-                      <span className="text-primary-600 font-medium text-sm">
-                        {user.firstName?.charAt(0)}
-                      </span>
+                      {user.avatar ? (
+                        <img
+                          src={avatarUrl(user.avatar, 64)}
+                          alt=""
+                          width={32}
+                          height={32}
+                          className="w-8 h-8 rounded-full object-cover"
+                        />
+                      ) : (
+                        <span className="text-primary-600 font-medium text-sm">
+                          {user.firstName?.charAt(0)}
+                        </span>
+                      )}
                     </div>
                     <span className="hidden sm:block text-sm font-medium text-gray-700">
                       {user.firstName}
@@ -7,6 +7,7 @@ import {
   Award,
   MessageCircle
 } from 'lucide-react'
+import { avatarUrl } from '../../api/prominApi'
 
 const UserCard = ({ user, showActions = false, onMessage, onView }) => {
   const formatDate = (dateString) => {
@@ -44,9 +45,20 @@ const UserCard = ({ user, showActions = false, onMessage, onView }) => {
     <div className="card hover:shadow-md transition-shadow duration-200">
       <div className="flex items-start space-x-4 mb-4">
         <div className="w-16 h-16 bg-primary-100 rounded-full flex items-center justify-center flex-shrink-0">
-          <span className="text-primary-600 font-semibold text-xl">
-            {user.firstName?.charAt(0)}
-          </span>
+          {user.avatar ? (
+            <img
+              src={avatarUrl(user.avatar, 128)}
+              alt=""
+              width={64}
+              height={64}
+              loading="lazy"
+              className="w-16 h-16 rounded-full object-cover"
+            />
+          ) : (
+            <span className="text-primary-600 font-semibold text-xl">
+              {user.firstName?.charAt(0)}
+            </span>
+          )}
         </div>
         
         <div className="flex-1 min-w-0">
@@ -89,25 +89,19 @@ const AnalyticsPage = () => {
     )
   }
 
-  // Mock data for charts
-  const userGrowthData = [
-    { month: 'Jan', users: 120, jobs: 45 },
-    { month: 'Feb', users: 190, jobs: 78 },
-    { month: 'Mar', users: 300, jobs: 120 },
-    { month: 'Apr', users: 280, jobs: 95 },
-    { month: 'May', users: 189, jobs: 67 },
-    { month: 'Jun', users: 239, jobs: 89 }
-  ]
+  const userGrowthData = (analytics?.series || []).map((point) => ({
+    label: point.label,
+    users: point.signups,
+    jobs: point.jobsPosted
+  }))
 
-  const revenueData = [
-    { month: 'Jan', revenue: 1200, commission: 120 },
-    { month: 'Feb', revenue: 1900, commission: 190 },
-    { month: 'Mar', revenue: 3000, commission: 300 },
-    { month: 'Apr', revenue: 2800, commission: 280 },
-    { month: 'May', revenue: 1890, commission: 189 },
-    { month: 'Jun', revenue: 2390, commission: 239 }
-  ]
+  const revenueData = (analytics?.series || []).map((point) => ({
+    label: point.label,
+    revenue: point.paymentVolume,
+    commission: point.platformRevenue
+  }))
 
+  // Mock data for charts
   const jobCategoryData = [
     { name: 'Web Development', value: 35, color: '#14b8a6' },
     { name: 'Design', value: 25, color: '#6366f1' },
@@ -225,7 +219,7 @@ const AnalyticsPage = () => {
           <ResponsiveContainer width="100%" height={300}>
             <AreaChart data={userGrowthData}>
               <CartesianGrid strokeDasharray="3 3" />
-              <XAxis dataKey="month" />
+              <XAxis dataKey="label" />
               <YAxis />
               <Tooltip />
               <Area type="monotone" dataKey="users" stackId="1" stroke="#14b8a6" fill="#14b8a6" />
@@ -240,7 +234,7 @@ const AnalyticsPage = () => {
           <ResponsiveContainer width="100%" height={300}>
             <LineChart data={revenueData}>
               <CartesianGrid strokeDasharray="3 3" />
-              <XAxis dataKey="month" />
+              <XAxis dataKey="label" />
               <YAxis />
               <Tooltip formatter={(value) => [formatCurrency(value), 'Amount']} />
               <Line type="monotone" dataKey="revenue" stroke="#14b8a6" strokeWidth={2} />
@@ -274,17 +274,17 @@ const JobViewPage = () => {
                       <div className="flex items-center space-x-3">
                         <div className="w-10 h-10 bg-primary-100 rounded-full flex items-center justify-center">
                           <span className="text-primary-600 font-medium text-sm">
-                            {application.applicant.firstName.charAt(0)}
+                            {application.tasker.firstName.charAt(0)}
                           </span>
                         </div>
                         <div>
                           <h4 className="font-medium text-gray-900">
-                            {application.applicant.firstName} {application.applicant.lastName}
+                            {application.tasker.firstName} {application.tasker.lastName}
                           </h4>
                           <div className="flex items-center">
                             <Star className="w-4 h-4 text-warning-400 mr-1" />
                             <span className="text-sm text-gray-600">
-                              {application.applicant.rating || 'No rating'}
+                              {application.tasker.rating || 'No rating'}
                             </span>
                           </div>
                         </div>
@@ -1,6 +1,6 @@
-import { useState, useEffect } from 'react'
+import { useState, useEffect, useRef } from 'react'
 import { useAuth } from '../../context/ProminAuthContext'
-import { prominApi } from '../../api/prominApi'
+import { prominApi, messageSocketUrl } from '../../api/prominApi'
 import { 
   MessageSquare, 
   Send, 
@@ -18,21 +18,78 @@ const MessagesPage = () => {
   const [newMessage, setNewMessage] = useState('')
   const [loading, setLoading] = useState(false)
   const [searchQuery, setSearchQuery] = useState('')
+  const socketRef = useRef(null)
+  const selectedRef = useRef(null)
+  const conversationIdsRef = useRef([])
 
   useEffect(() => {
     fetchConversations()
   }, [])
 
+  // One socket for the page; new messages of every listed conversation arrive on it
   useEffect(() => {
+    const token = localStorage.getItem('prominis_token')
+    if (!token) return undefined
+    const socket = new WebSocket(messageSocketUrl(token))
+    socketRef.current = socket
+    socket.onopen = () => {
+      conversationIdsRef.current.forEach((id) => sendCommand({ type: 'subscribe', conversationId: id }))
+    }
+    socket.onmessage = (event) => {
+      const data = JSON.parse(event.data)
+      if (data.type === 'message') receiveMessage(data.message)
+      if (data.type === 'read') receiveReadReceipt(data.read)
+    }
+    return () => socket.close()
+  }, [])
+
+  useEffect(() => {
+    conversationIdsRef.current = conversations.map((conv) => conv.id)
+  }, [conversations])
+
+  useEffect(() => {
+    selectedRef.current = selectedConversation
     if (selectedConversation) {
       fetchMessages(selectedConversation.id)
     }
   }, [selectedConversation])
 
+  const sendCommand = (command) => {
+    const socket = socketRef.current
+    if (socket?.readyState === WebSocket.OPEN) {
+      socket.send(JSON.stringify(command))
+      return true
+    }
+    return false
+  }
+
+  const receiveReadReceipt = (read) => {
+    if (read.userId === user.id) return
+    setConversations((current) => current.map((conv) =>
+      conv.id === read.conversationId ? { ...conv, otherLastReadId: Math.max(conv.otherLastReadId || 0, read.upTo) } : conv
+    ))
+  }
+
+  const receiveMessage = (message) => {
+    const isOpen = selectedRef.current?.id === message.conversationId
+    if (isOpen) {
+      setMessages((current) => current.some((m) => m.id === message.id) ? current : [...current, message])
+      if (message.senderId !== user.id) {
+        sendCommand({ type: 'read', conversationId: message.conversationId, upTo: message.id })
+      }
+    }
+    setConversations((current) => current.map((conv) => conv.id !== message.conversationId ? conv : {
+      ...conv,
+      lastMessage: { id: message.id, senderId: message.senderId, content: message.content, timestamp: message.createdAt },
+      unreadCount: !isOpen && message.senderId !== user.id ? conv.unreadCount + 1 : conv.unreadCount,
+    }))
+  }
+
   const fetchConversations = async () => {
     try {
       const response = await prominApi.messages.getConversations()
       setConversations(response.data)
+      response.data.forEach((conv) => sendCommand({ type: 'subscribe', conversationId: conv.id }))
       if (response.data.length > 0) {
         setSelectedConversation(response.data[0])
       }
@@ -44,7 +101,12 @@ const MessagesPage = () => {
   const fetchMessages = async (conversationId) => {
     try {
       const response = await prominApi.messages.getMessages(conversationId)
-      setMessages(response.data)
+      // History comes newest first
+      setMessages([...response.data.content].reverse())
+      await prominApi.messages.markAsRead(conversationId)
+      setConversations((current) => current.map((conv) =>
+        conv.id === conversationId ? { ...conv, unreadCount: 0 } : conv
+      ))
     } catch (error) {
       console.error('Failed to fetch messages:', error)
     }
@@ -56,12 +118,16 @@ const MessagesPage = () => {
 
     setLoading(true)
     try {
-      await prominApi.messages.sendMessage({
-        conversationId: selectedConversation.id,
-        content: newMessage
-      })
+      const command = { type: 'send', conversationId: selectedConversation.id, content: newMessage }
+      // The socket echoes the message back to this page; without it, fall back to HTTP
+      if (!sendCommand(command)) {
+        const response = await prominApi.messages.sendMessage({
+          conversationId: selectedConversation.id,
+          content: newMessage
+        })
+        receiveMessage(response.data)
+      }
       setNewMessage('')
-      fetchMessages(selectedConversation.id)
     } catch (error) {
       console.error('Failed to send message:', error)
     } finally {
@@ -80,6 +146,13 @@ const MessagesPage = () => {
     return date.toLocaleDateString()
   }
 
+  // Read receipt: the newest own message the other participant has read up to
+  const seenUpTo = conversations.find((conv) => conv.id === selectedConversation?.id)?.otherLastReadId || 0
+  const lastSeenOwnId = messages
+    .filter((message) => message.senderId === user.id && message.id <= seenUpTo)
+    .map((message) => message.id)
+    .pop()
+
   const filteredConversations = conversations.filter(conv =>
     conv.otherUser.name.toLowerCase().includes(searchQuery.toLowerCase())
   )
@@ -211,7 +284,8 @@ const MessagesPage = () => {
                               : 'text-gray-500'
                           }`}
                         >
-                          {formatTime(message.timestamp)}
+                          {formatTime(message.createdAt)}
+                          {message.id === lastSeenOwnId && ' · Seen'}
                         </p>
                       </div>
                     </div>
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react'
 import { useAuth } from '../../context/ProminAuthContext'
-import { prominApi } from '../../api/prominApi'
+import { prominApi, avatarUrl } from '../../api/prominApi'
 import { validateForm, profileUpdateSchema } from '../../utils/validation'
 import { 
   User, 
@@ -148,7 +148,7 @@ const ProfilePage = () => {
                 <div className="w-24 h-24 bg-primary-100 rounded-full flex items-center justify-center">
                   {user.avatar ? (
                     <img
-                      src={user.avatar}
+                      src={avatarUrl(user.avatar, 256)}
                       alt="Avatar"
                       className="w-24 h-24 rounded-full object-cover"
                     />
@@ -33,20 +33,23 @@ const JobBrowsePage = () => {
     pagination,
     refetch
   } = useProminPagination(
-    (params) => prominApi.jobs.search({
-      ...params,
-      search: searchQuery,
-      skills: selectedSkills,
-      minBudget: budgetRange.min,
-      maxBudget: budgetRange.max,
-      location,
-      sortBy,
-      sortOrder
-    }),
+    (params) => sortBy === 'recommended'
+      ? prominApi.jobs.recommended(params)
+      : prominApi.jobs.search({
+          ...params,
+          search: searchQuery,
+          skills: selectedSkills.join(','),
+          minBudget: budgetRange.min,
+          maxBudget: budgetRange.max,
+          location,
+          sortBy,
+          sortOrder
+        }),
     { page: 0, size: 12 }
   )
 
   const sortOptions = [
+    { value: 'recommended', label: 'Recommended' },
     { value: 'createdAt', label: 'Newest First' },
     { value: 'deadline', label: 'Deadline' },
     { value: 'budget', label: 'Budget (High to Low)' },
@@ -40,7 +40,7 @@ const TaskerDashboard = () => {
     try {
       const [statsResponse, jobsResponse, applicationsResponse] = await Promise.all([
         prominApi.dashboard.getTaskerStats(),
-        prominApi.jobs.search({ page: 0, size: 6, status: 'OPEN' }),
+        prominApi.jobs.recommended({ page: 0, size: 6 }),
         prominApi.applications.getMyApplications()
       ])
 
@@ -202,10 +202,10 @@ const TaskerDashboard = () => {
 
         {/* Recent Activity */}
         <div className="space-y-8">
-          {/* Available Jobs */}
+          {/* Recommended Jobs */}
           <div className="card">
             <div className="flex items-center justify-between mb-4">
-              <h3 className="text-lg font-semibold text-gray-900">Available Jobs</h3>
+              <h3 className="text-lg font-semibold text-gray-900">Recommended Jobs</h3>
               <Link
                 to="/tasker/jobs"
                 className="text-sm text-primary-600 hover:text-primary-700"
@@ -1,5 +1,6 @@
 import { useState, useEffect, useCallback } from 'react'
 import toast from 'react-hot-toast'
+import { prominApi, notificationStreamUrl } from '../api/prominApi'
 
 // Custom hook for API calls with loading states and error handling
 export const useProminFetch = (apiCall, dependencies = []) => {
@@ -137,6 +138,34 @@ export const useProminPagination = (apiCall, initialParams = {}) => {
   }
 }
 
+// Files above the server's multipart limit are sent as a resumable chunked upload
+const MULTIPART_LIMIT = 8 * 1024 * 1024
+const CHUNK_ATTEMPTS = 3
+
+const uploadInChunks = async (file, onProgress) => {
+  const { data: upload } = await prominApi.files.startUpload({
+    name: file.name,
+    contentType: file.type,
+    size: file.size,
+  })
+  const { uploadId, chunkSize, chunkCount } = upload
+  for (let index = 0; index < chunkCount; index++) {
+    const chunk = file.slice(index * chunkSize, Math.min(file.size, (index + 1) * chunkSize))
+    for (let attempt = 1; ; attempt++) {
+      try {
+        await prominApi.files.uploadChunk(uploadId, index, chunk)
+        break
+      } catch (err) {
+        // Chunks are idempotent, so a failed one is simply sent again
+        if (attempt >= CHUNK_ATTEMPTS) throw err
+      }
+    }
+    onProgress(Math.round(((index + 1) / chunkCount) * 100))
+  }
+  const { data } = await prominApi.files.completeUpload(uploadId)
+  return data
+}
+
 // Hook for file uploads
 export const useProminFileUpload = () => {
   const [uploading, setUploading] = useState(false)
@@ -148,6 +177,25 @@ export const useProminFileUpload = () => {
     setProgress(0)
     setError(null)
 
+    if (file.size > MULTIPART_LIMIT) {
+      try {
+        const result = await uploadInChunks(file, (percent) => {
+          setProgress(percent)
+          onProgress?.(percent)
+        })
+        toast.success('File uploaded successfully')
+        return result
+      } catch (err) {
+        const errorMessage = err.response?.data?.message || err.message || 'Upload failed'
+        setError(errorMessage)
+        toast.error(errorMessage)
+        throw err
+      } finally {
+        setUploading(false)
+        setProgress(0)
+      }
+    }
+
     const formData = new FormData()
     formData.append('file', file)
 
@@ -182,3 +230,30 @@ export const useProminFileUpload = () => {
   return { uploadFile, uploading, progress, error }
 }
 
+
+// Live notifications over Server-Sent Events; the browser reconnects on its own and the
+// server replays anything missed since the last event id
+export const useNotificationStream = (enabled = true) => {
+  const [unreadCount, setUnreadCount] = useState(0)
+  const [unreadMessages, setUnreadMessages] = useState(0)
+
+  useEffect(() => {
+    const token = localStorage.getItem('prominis_token')
+    if (!enabled || !token) return undefined
+
+    const source = new EventSource(notificationStreamUrl(token))
+    // Sent on connect and whenever either total changes
+    source.addEventListener('unread', (event) => {
+      const unread = JSON.parse(event.data)
+      setUnreadCount(unread.notifications)
+      setUnreadMessages(unread.messages)
+    })
+    source.addEventListener('notification', (event) => {
+      const notification = JSON.parse(event.data)
+      toast(notification.message || notification.title)
+    })
+    return () => source.close()
+  }, [enabled])
+
+  return { unreadCount, unreadMessages }
+}